@@ -0,0 +1,58 @@
+package org.eclipse.commons.emf;
+
+import java.util.Dictionary;
+import java.util.Hashtable;
+
+import org.eclipse.osgi.service.debug.DebugOptions;
+import org.eclipse.osgi.service.debug.DebugOptionsListener;
+import org.osgi.framework.BundleActivator;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.ServiceRegistration;
+
+/**
+ * Activator of this bundle.
+ *
+ * <p>
+ * While the bundle is active, the {@linkplain UriUtils#getStatistics()
+ * resolution statistics} are registered with the platform MBean server and
+ * follow the debug options of this bundle. Unregistering on stop keeps the
+ * MBean server from holding on to a refreshed bundle. For the same reason, the
+ * shared indices stop listening to workspace changes on stop.
+ * </p>
+ *
+ * @author Niko Stotz
+ *
+ * @noreference This class is not intended to be referenced by clients.
+ * @noinstantiate This class is not intended to be instantiated by clients.
+ */
+public final class Activator implements BundleActivator {
+	/** Symbolic name of this bundle */
+	static final String BUNDLE_ID = "org.eclipse.commons.emf";
+
+	private ServiceRegistration<DebugOptionsListener> debugOptionsListener = null;
+
+	@Override
+	public void start(final BundleContext context) throws Exception {
+		ResolutionStatistics statistics = ResolutionStatistics.getInstance();
+
+		Dictionary<String, Object> properties = new Hashtable<>();
+		properties.put(DebugOptions.LISTENER_SYMBOLICNAME, BUNDLE_ID);
+		debugOptionsListener = context.registerService(DebugOptionsListener.class, statistics, properties);
+
+		statistics.registerMBean();
+	}
+
+	@Override
+	public void stop(final BundleContext context) throws Exception {
+		ResolutionStatistics.getInstance().unregisterMBean();
+
+		if (debugOptionsListener != null) {
+			debugOptionsListener.unregister();
+			debugOptionsListener = null;
+		}
+
+		LocationIndex.getInstance().dispose();
+		CaseFoldedPathIndex.getInstance().dispose();
+		ContentFingerprints.getInstance().dispose();
+	}
+}
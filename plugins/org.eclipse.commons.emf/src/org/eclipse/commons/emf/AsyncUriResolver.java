@@ -0,0 +1,278 @@
+package org.eclipse.commons.emf;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.jdt.annotation.NonNull;
+
+/**
+ * Resolves {@linkplain org.eclipse.emf.common.util.URI Ecore URIs} to
+ * {@linkplain org.eclipse.core.resources.IResource Eclipse IResources}
+ * asynchronously.
+ *
+ * <p>
+ * Every request runs {@link UriUtils#toIResource(URI)} on the
+ * {@linkplain #getExecutor() executor}, and returns a
+ * {@link CompletableFuture} right away. Thus, request threads of e.g. a
+ * language server never wait for a busy workspace. Concurrent requests for
+ * the same workspace path share one resolution. Each caller gets its own
+ * future: {@linkplain CompletableFuture#cancel(boolean) Cancelling} it, or
+ * letting it time out, does not affect other callers.
+ * </p>
+ *
+ * <p>
+ * Cancelling or timing out only completes the future of the caller. The
+ * underlying {@link UriUtils#toIResource(URI)} call cannot be interrupted; it
+ * keeps running, and occupies its executor thread, until the workspace
+ * answers.
+ * </p>
+ *
+ * <p>
+ * On runtimes supporting virtual threads, the default executor runs each
+ * request on a new virtual thread, so stalled requests only cost memory.
+ * Otherwise, it is a shared pool of daemon threads, at most one per core; if
+ * the workspace stalls, further requests queue up instead of creating more
+ * threads.
+ * </p>
+ *
+ * <p>
+ * Instances are thread-safe.
+ * </p>
+ *
+ * @author Niko Stotz
+ *
+ * @since 0.2
+ *
+ */
+public class AsyncUriResolver {
+	private static final class DaemonThreadFactory implements ThreadFactory {
+		private final String prefix;
+		private final AtomicInteger count = new AtomicInteger();
+
+		DaemonThreadFactory(final String prefix) {
+			this.prefix = prefix;
+		}
+
+		@Override
+		public Thread newThread(final Runnable runnable) {
+			Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+
+	private static final class Defaults {
+		static final Executor EXECUTOR = createExecutor();
+
+		static final ScheduledThreadPoolExecutor TIMER = new ScheduledThreadPoolExecutor(1,
+				new DaemonThreadFactory("AsyncUriResolver-timeout-"));
+
+		static {
+			// completed requests should not keep their timeout task around
+			TIMER.setRemoveOnCancelPolicy(true);
+		}
+
+		private static @NonNull Executor createExecutor() {
+			// Looked up reflectively, as we compile against Java 8
+			MethodHandle virtual;
+			try {
+				virtual = MethodHandles.publicLookup().findStatic(Executors.class, "newVirtualThreadPerTaskExecutor",
+						MethodType.methodType(ExecutorService.class));
+			} catch (NoSuchMethodException | IllegalAccessException e) {
+				return createPool();
+			}
+
+			try {
+				return (ExecutorService) virtual.invokeExact();
+			} catch (UnsupportedOperationException e) {
+				// Preview feature not enabled
+				return createPool();
+			} catch (RuntimeException | Error e) {
+				throw e;
+			} catch (Throwable e) {
+				throw new IllegalStateException(e);
+			}
+		}
+
+		private static @NonNull Executor createPool() {
+			ThreadPoolExecutor pool = new ThreadPoolExecutor(Runtime.getRuntime().availableProcessors(),
+					Runtime.getRuntime().availableProcessors(), 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+					new DaemonThreadFactory("AsyncUriResolver-"));
+			// idle resolvers should not keep threads around
+			pool.allowCoreThreadTimeOut(true);
+			return pool;
+		}
+	}
+
+	private final @NonNull Executor executor;
+
+	private final ConcurrentHashMap<IPath, CompletableFuture<IResource>> inFlight = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates a resolver running on the shared default executor.
+	 *
+	 * @since 0.2
+	 */
+	public AsyncUriResolver() {
+		this(Defaults.EXECUTOR);
+	}
+
+	/**
+	 * Creates a resolver running on {@code executor}.
+	 *
+	 * @param executor
+	 *            Executor to resolve URIs on.
+	 *
+	 * @since 0.2
+	 */
+	public AsyncUriResolver(final @NonNull Executor executor) {
+		this.executor = executor;
+	}
+
+	/**
+	 * Returns the executor this resolver resolves URIs on.
+	 *
+	 * @return The executor of this resolver.
+	 *
+	 * @since 0.2
+	 */
+	public @NonNull Executor getExecutor() {
+		return executor;
+	}
+
+	/**
+	 * Resolves {@code uri} asynchronously, like
+	 * {@link UriUtils#toIResource(URI)}.
+	 *
+	 * <p>
+	 * URIs that are not platform resources complete immediately with
+	 * {@code null}.
+	 * </p>
+	 *
+	 * @param uri
+	 *            The Ecore URI to return as Eclipse IResource.
+	 * @return Future of {@code uri} as Eclipse IResource. It completes
+	 *         exceptionally with {@link IllegalArgumentException} if
+	 *         {@code uri} is seriously ill-formatted.
+	 *
+	 * @since 0.2
+	 */
+	public @NonNull CompletableFuture<IResource> toIResource(final @NonNull URI uri) {
+		IPath path = UriUtils.toPath(uri);
+		if (path == null) {
+			return CompletableFuture.completedFuture(null);
+		}
+
+		CompletableFuture<IResource> created = new CompletableFuture<>();
+		CompletableFuture<IResource> shared = inFlight.putIfAbsent(path, created);
+		if (shared == null) {
+			shared = created;
+			try {
+				executor.execute(() -> resolve(uri, path, created));
+			} catch (RuntimeException e) {
+				inFlight.remove(path, created);
+				created.completeExceptionally(e);
+			}
+		}
+
+		// a separate future per caller, so cancelling does not affect others
+		return shared.thenApply(resource -> resource);
+	}
+
+	/**
+	 * Resolves {@code uri} asynchronously, like {@link #toIResource(URI)}, but
+	 * gives up after {@code timeout}.
+	 *
+	 * @param uri
+	 *            The Ecore URI to return as Eclipse IResource.
+	 * @param timeout
+	 *            Maximum time to wait for the result.
+	 * @param unit
+	 *            Unit of {@code timeout}.
+	 * @return Future of {@code uri} as Eclipse IResource. It completes
+	 *         exceptionally with {@link TimeoutException} if the result is not
+	 *         available within {@code timeout}; the resolution itself keeps
+	 *         running.
+	 *
+	 * @since 0.2
+	 */
+	public @NonNull CompletableFuture<IResource> toIResource(final @NonNull URI uri, final long timeout,
+			final @NonNull TimeUnit unit) {
+		CompletableFuture<IResource> result = toIResource(uri);
+		if (!result.isDone()) {
+			ScheduledFuture<?> timer = Defaults.TIMER.schedule(
+					() -> result.completeExceptionally(new TimeoutException("Resolving " + uri + " timed out")),
+					timeout, unit);
+			result.whenComplete((resource, failure) -> timer.cancel(false));
+		}
+		return result;
+	}
+
+	/**
+	 * Resolves several URIs asynchronously.
+	 *
+	 * <p>
+	 * Each element of the result is exactly what {@link #toIResource(URI)}
+	 * would complete with for the {@code uris} element at the same position.
+	 * </p>
+	 *
+	 * @param uris
+	 *            The Ecore URIs to return as Eclipse IResources.
+	 * @return Future of a list with the same size and iteration order as
+	 *         {@code uris}. It completes exceptionally if any URI fails.
+	 *
+	 * @since 0.2
+	 */
+	public @NonNull CompletableFuture<List<IResource>> toIResources(
+			final @NonNull Collection<@NonNull URI> uris) {
+		List<CompletableFuture<IResource>> futures = new ArrayList<>(uris.size());
+		for (URI uri : uris) {
+			futures.add(toIResource(uri));
+		}
+
+		return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()])).thenApply(ignored -> {
+			List<IResource> result = new ArrayList<>(futures.size());
+			futures.forEach(future -> result.add(future.join()));
+			return result;
+		});
+	}
+
+	private void resolve(final @NonNull URI uri, final @NonNull IPath path,
+			final @NonNull CompletableFuture<IResource> future) {
+		IResource result = null;
+		Throwable failure = null;
+		try {
+			result = UriUtils.toIResource(uri);
+		} catch (Throwable t) {
+			failure = t;
+		}
+
+		// Later requests start a fresh resolution
+		inFlight.remove(path, future);
+		if (failure != null) {
+			future.completeExceptionally(failure);
+		} else {
+			future.complete(result);
+		}
+	}
+}
@@ -0,0 +1,491 @@
+package org.eclipse.commons.emf;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.emf.common.util.EList;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Resolves {@linkplain org.eclipse.emf.common.util.URI Ecore URIs} including
+ * their {@linkplain URI#fragment() fragment} to
+ * {@linkplain org.eclipse.emf.ecore.EObject EObjects}, caching the loaded
+ * {@linkplain org.eclipse.emf.ecore.resource.Resource Resources}.
+ *
+ * <p>
+ * The resolver loads resources into its own
+ * {@linkplain #getResourceSet() resource set}, and keeps at most
+ * {@link #getMaximumSize()} of them loaded. If the cache is full, the least
+ * recently used resource is unloaded. Resources loaded indirectly, e.g. by
+ * resolving a proxy, are not counted. They are attributed to the resource
+ * requested when they are first noticed, i.e. at the end of the request
+ * loading them or at the next request, and unloaded together with it.
+ * Resources contained in the resource set before the resolver was created are
+ * left alone.
+ * </p>
+ *
+ * <p>
+ * The resolver listens to workspace changes. Whenever the file of a cached
+ * resource or of one of its indirectly loaded resources changes its content,
+ * is removed, moved, or becomes inaccessible, the cached resource is evicted.
+ * The next request loads the current content again. EObjects of unloaded
+ * resources become {@linkplain EObject#eIsProxy() proxies}.
+ * </p>
+ *
+ * <p>
+ * Instances are thread-safe. As resource sets are not, all requests are
+ * serialized. Workspace notifications never wait for a request to finish
+ * loading; evicted resources are unloaded at the start of the next request.
+ * Call {@link #dispose()} once the resolver is not needed anymore to unregister
+ * its workspace listener and unload all resources.
+ * </p>
+ *
+ * @author Niko Stotz
+ *
+ * @since 0.2
+ *
+ */
+public class CachingEObjectResolver {
+	/**
+	 * Maximum number of loaded resources if not specified otherwise.
+	 *
+	 * @since 0.2
+	 */
+	public static final int DEFAULT_MAXIMUM_SIZE = 100;
+
+	private static final int INVALIDATING_CHANGES = IResourceDelta.CONTENT | IResourceDelta.ENCODING
+			| IResourceDelta.OPEN | IResourceDelta.TYPE | IResourceDelta.REPLACED | IResourceDelta.MOVED_FROM
+			| IResourceDelta.MOVED_TO;
+
+	private final int maximumSize;
+
+	private final @NonNull ResourceSet resourceSet;
+
+	/**
+	 * Serializes all access to {@link #resourceSet}. Acquired before
+	 * {@link #cache}, never by the workspace listener.
+	 */
+	private final Object requestLock = new Object();
+
+	/**
+	 * Cached entries in access order. Guards all fields below; only held for
+	 * bookkeeping, never while accessing {@link #resourceSet}.
+	 */
+	private final Map<IFile, Entry> cache;
+
+	/**
+	 * Entry of each resource in {@link #resourceSet}, whether cached or
+	 * {@linkplain #evicted evicted}.
+	 */
+	private final Map<Resource, Entry> owners = new IdentityHashMap<>();
+
+	/**
+	 * Resources in {@link #resourceSet} at creation; never attributed to an
+	 * entry.
+	 */
+	private final Set<Resource> foreign = Collections.newSetFromMap(new IdentityHashMap<>());
+
+	/**
+	 * Entries removed from {@link #cache}, but not unloaded yet.
+	 */
+	private final List<Entry> evicted = new ArrayList<>();
+
+	/**
+	 * File currently loaded by a request, if any.
+	 */
+	private @Nullable IFile loading = null;
+
+	/**
+	 * Whether {@link #loading} changed while being loaded.
+	 */
+	private boolean loadingInvalidated = false;
+
+	private final IResourceChangeListener listener = this::resourceChanged;
+
+	/**
+	 * Creates a resolver loading at most {@link #DEFAULT_MAXIMUM_SIZE} resources
+	 * into a new resource set.
+	 *
+	 * @since 0.2
+	 */
+	public CachingEObjectResolver() {
+		this(new ResourceSetImpl(), DEFAULT_MAXIMUM_SIZE);
+	}
+
+	/**
+	 * Creates a resolver loading at most {@code maximumSize} resources into
+	 * {@code resourceSet}.
+	 *
+	 * <p>
+	 * {@code resourceSet} provides the URI mappings and resource factories. It
+	 * must not be used concurrently outside this resolver.
+	 * </p>
+	 *
+	 * @param resourceSet
+	 *            Resource set to load resources into.
+	 * @param maximumSize
+	 *            Maximum number of loaded resources.
+	 *
+	 * @throws IllegalArgumentException
+	 *             If {@code maximumSize} is not positive.
+	 *
+	 * @since 0.2
+	 */
+	public CachingEObjectResolver(final @NonNull ResourceSet resourceSet, final int maximumSize) {
+		if (maximumSize <= 0) {
+			throw new IllegalArgumentException("maximumSize must be positive: " + maximumSize);
+		}
+
+		this.maximumSize = maximumSize;
+		this.resourceSet = resourceSet;
+		this.foreign.addAll(resourceSet.getResources());
+		this.cache = new LinkedHashMap<IFile, Entry>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(final Map.Entry<IFile, Entry> eldest) {
+				if (size() > CachingEObjectResolver.this.maximumSize) {
+					evicted.add(eldest.getValue());
+					return true;
+				}
+				return false;
+			}
+		};
+
+		ResourcesPlugin.getWorkspace().addResourceChangeListener(listener, IResourceChangeEvent.POST_CHANGE);
+	}
+
+	/**
+	 * Returns the EObject {@code uri} points to, if available.
+	 *
+	 * <p>
+	 * This method resolves {@code uri} like
+	 * {@link UriUtils#toIResource(URI, org.eclipse.emf.ecore.resource.URIConverter)},
+	 * using the URI converter of the {@linkplain #getResourceSet() resource set}.
+	 * If the result is an existing IFile, its resource is loaded (or served from
+	 * the cache), and the {@linkplain Resource#getEObject(String) EObject at the
+	 * fragment} of {@code uri} is returned. If {@code uri} has no fragment, this
+	 * method returns the first root object of the resource.
+	 * </p>
+	 *
+	 * @param uri
+	 *            The Ecore URI to return as EObject.
+	 * @return The EObject {@code uri} points to, if available; {@code null} if
+	 *         {@code uri} does not denote an existing workspace file, the file
+	 *         cannot be loaded, or it does not contain the fragment.
+	 *
+	 * @throws IllegalArgumentException
+	 *             If {@code uri} is seriously ill-formatted.
+	 *
+	 * @since 0.2
+	 */
+	public @Nullable EObject toEObject(final @NonNull URI uri) {
+		IResource iResource = UriUtils.toIResource(uri, resourceSet.getURIConverter());
+		if (!(iResource instanceof IFile) || !iResource.exists()) {
+			return null;
+		}
+
+		synchronized (requestLock) {
+			unloadEvicted(null);
+
+			Entry entry = getEntry((IFile) iResource);
+			if (entry == null) {
+				return null;
+			}
+
+			try {
+				String fragment = uri.fragment();
+				if (fragment != null) {
+					return entry.resource.getEObject(fragment);
+				}
+
+				EList<EObject> contents = entry.resource.getContents();
+				return contents.isEmpty() ? null : contents.get(0);
+			} finally {
+				adoptIndirect(entry);
+				// Keeps the result usable even if it changed while loading
+				unloadEvicted(entry);
+			}
+		}
+	}
+
+	/**
+	 * Returns the resource set this resolver loads resources into.
+	 *
+	 * @return The resource set of this resolver.
+	 *
+	 * @since 0.2
+	 */
+	public @NonNull ResourceSet getResourceSet() {
+		return resourceSet;
+	}
+
+	/**
+	 * Returns the maximum number of loaded resources.
+	 *
+	 * @return Maximum number of loaded resources.
+	 *
+	 * @since 0.2
+	 */
+	public int getMaximumSize() {
+		return maximumSize;
+	}
+
+	/**
+	 * Returns the current number of loaded resources.
+	 *
+	 * @return Current number of loaded resources.
+	 *
+	 * @since 0.2
+	 */
+	public int size() {
+		synchronized (cache) {
+			return cache.size();
+		}
+	}
+
+	/**
+	 * Unloads all cached resources, including their indirectly loaded
+	 * resources.
+	 *
+	 * @since 0.2
+	 */
+	public void clear() {
+		synchronized (requestLock) {
+			evictAll();
+			unloadEvicted(null);
+		}
+	}
+
+	/**
+	 * Unregisters the workspace listener and unloads all cached resources.
+	 *
+	 * @since 0.2
+	 */
+	public void dispose() {
+		ResourcesPlugin.getWorkspace().removeResourceChangeListener(listener);
+		clear();
+	}
+
+	/**
+	 * Returns the cached entry of {@code file}, loading it if required. Must be
+	 * called holding {@link #requestLock}.
+	 */
+	private @Nullable Entry getEntry(final @NonNull IFile file) {
+		synchronized (cache) {
+			Entry cached = cache.get(file);
+			if (cached != null) {
+				return cached;
+			}
+			loading = file;
+			loadingInvalidated = false;
+		}
+
+		URI uri = UriUtils.toUri(file);
+		Resource loaded;
+		try {
+			loaded = resourceSet.getResource(uri, true);
+		} catch (RuntimeException e) {
+			// getResource() wraps load failures, but keeps the broken resource
+			Resource broken = resourceSet.getResource(uri, false);
+			if (broken != null) {
+				unload(broken);
+			}
+			loaded = null;
+		}
+
+		synchronized (cache) {
+			boolean invalidated = loadingInvalidated;
+			loading = null;
+			if (loaded == null) {
+				return null;
+			}
+
+			// Might have been loaded indirectly by another entry, or be contained
+			// in the resource set from the start
+			Entry previousOwner = owners.get(loaded);
+			if (previousOwner != null) {
+				previousOwner.dependencies.remove(loaded);
+			}
+			foreign.remove(loaded);
+
+			Entry result = new Entry(loaded, file.getFullPath());
+			owners.put(loaded, result);
+			if (invalidated) {
+				// Serves this request, but the next one loads the current content
+				evicted.add(result);
+			} else {
+				cache.put(file, result);
+			}
+			return result;
+		}
+	}
+
+	/**
+	 * Attributes all resources in the resource set not known yet to
+	 * {@code entry}. Must be called holding {@link #requestLock}.
+	 */
+	private void adoptIndirect(final @NonNull Entry entry) {
+		List<Resource> resources = resourceSet.getResources();
+		List<Resource> adopted = new ArrayList<>();
+		synchronized (cache) {
+			if (resources.size() == owners.size() + foreign.size()) {
+				return;
+			}
+
+			for (Resource resource : resources) {
+				if (!owners.containsKey(resource) && !foreign.contains(resource)) {
+					adopted.add(resource);
+				}
+			}
+		}
+
+		List<IPath> paths = new ArrayList<>(adopted.size());
+		for (Resource resource : adopted) {
+			URI uri = resource.getURI();
+			IResource file = uri != null ? UriUtils.toIResource(uri, resourceSet.getURIConverter()) : null;
+			if (file != null) {
+				paths.add(file.getFullPath());
+			}
+		}
+
+		synchronized (cache) {
+			for (Resource resource : adopted) {
+				owners.put(resource, entry);
+			}
+			entry.dependencies.addAll(adopted);
+			entry.paths.addAll(paths);
+		}
+	}
+
+	/**
+	 * Unloads all evicted entries except {@code keep}. Must be called holding
+	 * {@link #requestLock}.
+	 */
+	private void unloadEvicted(final @Nullable Entry keep) {
+		List<Resource> unloading = new ArrayList<>();
+		synchronized (cache) {
+			evicted.removeIf(entry -> {
+				if (entry == keep) {
+					return false;
+				}
+				unloading.add(entry.resource);
+				unloading.addAll(entry.dependencies);
+				return true;
+			});
+			unloading.forEach(owners::remove);
+		}
+
+		unloading.forEach(this::unload);
+	}
+
+	private void unload(final @NonNull Resource resource) {
+		resource.unload();
+		resourceSet.getResources().remove(resource);
+	}
+
+	private void evictAll() {
+		synchronized (cache) {
+			evicted.addAll(cache.values());
+			cache.clear();
+			loadingInvalidated = true;
+		}
+	}
+
+	private void resourceChanged(final IResourceChangeEvent event) {
+		IResourceDelta delta = event.getDelta();
+		if (delta == null) {
+			return;
+		}
+
+		Set<IPath> affected = new HashSet<>();
+		try {
+			delta.accept(d -> {
+				if (d.getKind() == IResourceDelta.CHANGED && (d.getFlags() & INVALIDATING_CHANGES) == 0) {
+					return true;
+				}
+
+				// Covers the whole subtree, no need to descend
+				affected.add(d.getFullPath());
+				return false;
+			});
+		} catch (CoreException e) {
+			evictAll();
+			return;
+		}
+
+		if (!affected.isEmpty()) {
+			evict(affected);
+		}
+	}
+
+	private void evict(final @NonNull Set<IPath> affected) {
+		synchronized (cache) {
+			cache.values().removeIf(entry -> {
+				for (IPath path : entry.paths) {
+					if (isAffected(path, affected)) {
+						evicted.add(entry);
+						return true;
+					}
+				}
+				return false;
+			});
+
+			IFile current = loading;
+			if (current != null && isAffected(current.getFullPath(), affected)) {
+				loadingInvalidated = true;
+			}
+		}
+	}
+
+	private static boolean isAffected(final @NonNull IPath path, final @NonNull Set<IPath> affected) {
+		for (IPath current = path;; current = current.removeLastSegments(1)) {
+			if (affected.contains(current)) {
+				return true;
+			}
+			if (current.segmentCount() == 0) {
+				return false;
+			}
+		}
+	}
+
+	/**
+	 * A cached resource together with the resources loaded indirectly on its
+	 * behalf. Mutable fields are guarded by {@link CachingEObjectResolver#cache}.
+	 */
+	private static final class Entry {
+		final @NonNull Resource resource;
+
+		final List<Resource> dependencies = new ArrayList<>(0);
+
+		/**
+		 * Workspace paths of {@link #resource} and {@link #dependencies}.
+		 */
+		final List<IPath> paths = new ArrayList<>(1);
+
+		Entry(final @NonNull Resource resource, final @NonNull IPath path) {
+			this.resource = resource;
+			this.paths.add(path);
+		}
+	}
+}
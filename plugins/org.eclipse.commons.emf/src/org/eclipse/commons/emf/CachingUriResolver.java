@@ -0,0 +1,298 @@
+package org.eclipse.commons.emf;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Caches the results of {@link UriUtils#toIResource(URI)}.
+ *
+ * <p>
+ * The cache is keyed on the URI without {@linkplain URI#fragment() fragment}
+ * and {@linkplain URI#query() query}, and holds at most
+ * {@link #getMaximumSize()} entries. If the cache is full, entries that were
+ * not used since the last eviction run are evicted (approximating least
+ * recently used).
+ * </p>
+ *
+ * <p>
+ * The resolver listens to workspace changes. Whenever a resource is added,
+ * removed, moved, opened, closed, or changes its type, all cached entries for
+ * this resource and its descendants are evicted. Content changes do not evict
+ * anything, as they cannot change the result of
+ * {@link UriUtils#toIResource(URI)}.
+ * </p>
+ *
+ * <p>
+ * Instances are thread-safe and meant to be shared by parallel workers, e.g.
+ * while loading EMF resources on a fork-join pool. Cache hits take no lock and
+ * do not write to shared state (except for marking an entry as used once), so
+ * concurrent lookups do not serialize. Cache misses resolve without any lock of
+ * this resolver; they do not acquire the workspace lock or any scheduling rule
+ * either, so they may run while jobs hold rules. A miss racing with a
+ * workspace change is not cached.
+ * </p>
+ *
+ * <p>
+ * Call {@link #dispose()} once the resolver is not needed anymore to unregister
+ * its workspace listener.
+ * </p>
+ *
+ * @author Niko Stotz
+ *
+ * @since 0.2
+ *
+ */
+public class CachingUriResolver {
+	/**
+	 * Maximum number of cached entries if not specified otherwise.
+	 *
+	 * @since 0.2
+	 */
+	public static final int DEFAULT_MAXIMUM_SIZE = 10_000;
+
+	private static final int STRUCTURAL_CHANGES = IResourceDelta.OPEN | IResourceDelta.TYPE | IResourceDelta.REPLACED
+			| IResourceDelta.MOVED_FROM | IResourceDelta.MOVED_TO;
+
+	private static final class Entry {
+		private final @NonNull IResource resource;
+
+		private volatile boolean used = false;
+
+		Entry(final @NonNull IResource resource) {
+			this.resource = resource;
+		}
+	}
+
+	private final int maximumSize;
+
+	private final ConcurrentHashMap<URI, Entry> cache = new ConcurrentHashMap<>();
+
+	private final IResourceChangeListener listener = this::resourceChanged;
+
+	private final AtomicLong generation = new AtomicLong();
+
+	private final AtomicBoolean trimming = new AtomicBoolean(false);
+
+	/**
+	 * Creates a resolver holding at most {@link #DEFAULT_MAXIMUM_SIZE} entries.
+	 *
+	 * @since 0.2
+	 */
+	public CachingUriResolver() {
+		this(DEFAULT_MAXIMUM_SIZE);
+	}
+
+	/**
+	 * Creates a resolver holding at most {@code maximumSize} entries.
+	 *
+	 * @param maximumSize
+	 *            Maximum number of cached entries.
+	 *
+	 * @throws IllegalArgumentException
+	 *             If {@code maximumSize} is not positive.
+	 *
+	 * @since 0.2
+	 */
+	public CachingUriResolver(final int maximumSize) {
+		if (maximumSize <= 0) {
+			throw new IllegalArgumentException("maximumSize must be positive: " + maximumSize);
+		}
+
+		this.maximumSize = maximumSize;
+
+		ResourcesPlugin.getWorkspace().addResourceChangeListener(listener, IResourceChangeEvent.POST_CHANGE);
+	}
+
+	/**
+	 * Same as {@link UriUtils#toIResource(URI)}, but served from the cache if
+	 * possible.
+	 *
+	 * @param uri
+	 *            The Ecore URI to return as Eclipse IResource.
+	 * @return {@code uri} as Eclipse IResource, if available; {@code null}
+	 *         otherwise.
+	 *
+	 * @throws IllegalArgumentException
+	 *             If {@code uri} is seriously ill-formatted.
+	 *
+	 * @see UriUtils#toIResource(URI)
+	 *
+	 * @since 0.2
+	 */
+	public @Nullable IResource toIResource(final @NonNull URI uri) {
+		if (!uri.isPlatformResource()) {
+			return null;
+		}
+
+		URI key = toKey(uri);
+		Entry cached = cache.get(key);
+		if (cached != null) {
+			if (!cached.used) {
+				cached.used = true;
+			}
+			ResolutionStatistics.recordCacheHit();
+			return cached.resource;
+		}
+
+		ResolutionStatistics.recordCacheMiss();
+		long expectedGeneration = generation.get();
+		IResource result = UriUtils.toIResource(key);
+		if (result == null) {
+			return null;
+		}
+
+		Entry entry = new Entry(result);
+		cache.put(key, entry);
+		if (generation.get() != expectedGeneration) {
+			// A concurrent eviction might have missed our stale result
+			cache.remove(key, entry);
+		} else if (cache.size() > maximumSize) {
+			trim();
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns the maximum number of cached entries.
+	 *
+	 * @return Maximum number of cached entries.
+	 *
+	 * @since 0.2
+	 */
+	public int getMaximumSize() {
+		return maximumSize;
+	}
+
+	/**
+	 * Returns the current number of cached entries.
+	 *
+	 * @return Current number of cached entries.
+	 *
+	 * @since 0.2
+	 */
+	public int size() {
+		return cache.size();
+	}
+
+	/**
+	 * Evicts all cached entries.
+	 *
+	 * @since 0.2
+	 */
+	public void clear() {
+		generation.incrementAndGet();
+		cache.clear();
+	}
+
+	/**
+	 * Unregisters the workspace listener and evicts all cached entries.
+	 *
+	 * @since 0.2
+	 */
+	public void dispose() {
+		ResourcesPlugin.getWorkspace().removeResourceChangeListener(listener);
+		clear();
+	}
+
+	private static @NonNull URI toKey(final @NonNull URI uri) {
+		URI result = uri;
+		if (result.hasFragment()) {
+			result = result.trimFragment();
+		}
+		if (result.hasQuery()) {
+			result = result.trimQuery();
+		}
+		return result;
+	}
+
+	private void resourceChanged(final IResourceChangeEvent event) {
+		IResourceDelta delta = event.getDelta();
+		if (delta == null) {
+			return;
+		}
+
+		Set<IPath> affected = new HashSet<>();
+		try {
+			delta.accept(d -> {
+				if (d.getKind() == IResourceDelta.CHANGED && (d.getFlags() & STRUCTURAL_CHANGES) == 0) {
+					return true;
+				}
+
+				// Covers the whole subtree, no need to descend
+				affected.add(d.getFullPath());
+				return false;
+			});
+		} catch (CoreException e) {
+			clear();
+			return;
+		}
+
+		if (!affected.isEmpty()) {
+			evict(affected);
+		}
+	}
+
+	private void evict(final @NonNull Set<IPath> affected) {
+		generation.incrementAndGet();
+		cache.values().removeIf(entry -> isAffected(entry.resource.getFullPath(), affected));
+	}
+
+	/**
+	 * Evicts entries until the cache fits {@link #maximumSize}, giving each used
+	 * entry a second chance. Only one thread trims at a time; others continue
+	 * right away.
+	 */
+	private void trim() {
+		if (!trimming.compareAndSet(false, true)) {
+			return;
+		}
+
+		try {
+			Iterator<Entry> iterator = cache.values().iterator();
+			while (cache.size() > maximumSize) {
+				if (!iterator.hasNext()) {
+					iterator = cache.values().iterator();
+					if (!iterator.hasNext()) {
+						return;
+					}
+				}
+
+				Entry entry = iterator.next();
+				if (entry.used) {
+					entry.used = false;
+				} else {
+					iterator.remove();
+				}
+			}
+		} finally {
+			trimming.set(false);
+		}
+	}
+
+	private static boolean isAffected(final @NonNull IPath path, final @NonNull Set<IPath> affected) {
+		for (IPath current = path;; current = current.removeLastSegments(1)) {
+			if (affected.contains(current)) {
+				return true;
+			}
+			if (current.segmentCount() == 0) {
+				return false;
+			}
+		}
+	}
+}
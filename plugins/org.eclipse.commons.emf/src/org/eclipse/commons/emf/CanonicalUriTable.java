@@ -0,0 +1,84 @@
+package org.eclipse.commons.emf;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.jdt.annotation.NonNull;
+
+/**
+ * Concurrent table of canonical URIs per workspace path.
+ *
+ * <p>
+ * The URIs are only weakly referenced; entries of collected URIs are expunged
+ * lazily on the next access.
+ * </p>
+ *
+ * @author Niko Stotz
+ *
+ */
+final class CanonicalUriTable {
+	private static final class Entry extends WeakReference<URI> {
+		private final IPath key;
+
+		Entry(final @NonNull IPath key, final @NonNull URI uri, final @NonNull ReferenceQueue<URI> queue) {
+			super(uri, queue);
+			this.key = key;
+		}
+	}
+
+	private final ConcurrentHashMap<IPath, Entry> table = new ConcurrentHashMap<>();
+
+	private final ReferenceQueue<URI> queue = new ReferenceQueue<>();
+
+	/**
+	 * Returns the canonical URI for {@code path}, creating it with
+	 * {@code factory} if required.
+	 */
+	@NonNull URI intern(final @NonNull IPath path, final @NonNull Function<IPath, URI> factory) {
+		expunge();
+
+		Entry entry = table.get(path);
+		if (entry != null) {
+			URI uri = entry.get();
+			if (uri != null) {
+				return uri;
+			}
+		}
+
+		URI created = factory.apply(path);
+		Entry createdEntry = new Entry(path, created, queue);
+		while (true) {
+			Entry existing = table.putIfAbsent(path, createdEntry);
+			if (existing == null) {
+				return created;
+			}
+
+			URI existingUri = existing.get();
+			if (existingUri != null) {
+				return existingUri;
+			}
+
+			if (table.replace(path, existing, createdEntry)) {
+				return created;
+			}
+		}
+	}
+
+	int size() {
+		expunge();
+		return table.size();
+	}
+
+	private void expunge() {
+		Reference<? extends URI> reference;
+		while ((reference = queue.poll()) != null) {
+			Entry entry = (Entry) reference;
+			table.remove(entry.key, entry);
+		}
+	}
+}
@@ -0,0 +1,658 @@
+package org.eclipse.commons.emf;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.core.resources.IContainer;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.ISavedState;
+import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Case-folded index of all workspace paths.
+ *
+ * <p>
+ * The index mirrors the workspace resource tree. The children of each node are
+ * keyed by their lower-cased name, and each node remembers the actual name and
+ * type of its resource. The index is built on the first lookup and afterwards
+ * kept up to date from resource deltas. Thus, lookups cost one hash lookup per
+ * segment, instead of scanning the members of every container on the path.
+ * </p>
+ *
+ * <p>
+ * If several siblings differ only in case, the index holds the one it
+ * encountered first. Like
+ * {@link UriUtils#toIResource(org.eclipse.emf.common.util.URI)}, the index
+ * includes hidden and team private members, whether they existed when the
+ * index was built or were added later.
+ * </p>
+ *
+ * <p>
+ * The index can be {@linkplain #save(File) saved} to a compact file, and
+ * {@linkplain #restore(File, ISavedState) restored} from it on the next start.
+ * The file holds the nodes in pre-order: type (ORed with
+ * {@link #AMBIGUOUS_FLAG}), length and UTF-8 bytes of the name, and number of
+ * children.
+ * </p>
+ *
+ * <p>
+ * Live deltas arrive while the workspace lock is held. Thus, the monitor of
+ * the index must never be held while calling workspace API that acquires the
+ * workspace lock, like
+ * {@link ISavedState#processResourceChangeEvents(org.eclipse.core.resources.IResourceChangeListener)},
+ * nor while walking the workspace, as live deltas would wait for the walk.
+ * Building the index walks the workspace without any lock, so operations may
+ * change the tree behind the walk. Live changes arriving meanwhile are queued
+ * and replayed onto the new index before it is published.
+ * </p>
+ *
+ * @author Niko Stotz
+ *
+ */
+final class CaseFoldedPathIndex {
+	private static final int TYPE_CHANGES = IResourceDelta.TYPE | IResourceDelta.REPLACED;
+
+	private static final int MEMBER_FLAGS = IContainer.INCLUDE_HIDDEN | IContainer.INCLUDE_TEAM_PRIVATE_MEMBERS;
+
+	private static final CaseFoldedPathIndex INSTANCE = new CaseFoldedPathIndex();
+
+	private static final int FILE_MAGIC = 0x43465049;
+
+	private static final int FILE_VERSION = 1;
+
+	private static final int AMBIGUOUS_FLAG = 0x80;
+
+	private static final class Node {
+		private final @NonNull String name;
+
+		private volatile int type;
+
+		private volatile Map<String, Node> children = null;
+
+		/** Whether a sibling differing only in case was dropped. */
+		private boolean ambiguous = false;
+
+		Node(final @NonNull String name, final int type) {
+			this.name = name;
+			this.type = type;
+		}
+
+		@Nullable Node getChild(final @NonNull String foldedName) {
+			Map<String, Node> current = children;
+			return current != null ? current.get(foldedName) : null;
+		}
+
+		@NonNull Map<String, Node> getOrCreateChildren() {
+			Map<String, Node> result = children;
+			if (result == null) {
+				result = new ConcurrentHashMap<>(4);
+				children = result;
+			}
+			return result;
+		}
+	}
+
+	/** A change to apply to the index, extracted from a resource delta */
+	private static final class Change {
+		/**
+		 * {@link IResourceDelta#ADDED}, {@link IResourceDelta#REMOVED},
+		 * {@link IResourceDelta#OPEN}, or {@link IResourceDelta#TYPE}
+		 */
+		final int kind;
+
+		final @NonNull IResource resource;
+
+		Change(final int kind, final @NonNull IResource resource) {
+			this.kind = kind;
+			this.resource = resource;
+		}
+	}
+
+	private volatile Node root = null;
+
+	/** Live changes received while {@linkplain #beginRestore() restoring}; {@code null} otherwise */
+	private List<Change> pending = null;
+
+	/**
+	 * Live changes received while {@linkplain #getRoot(IWorkspaceRoot)
+	 * building}; {@code null} otherwise, or if a change could not be collected
+	 */
+	private List<Change> building = null;
+
+	/** Serializes builds; never held by live deltas */
+	private final Object buildLock = new Object();
+
+	private final IResourceChangeListener listener = event -> {
+		IResourceDelta delta = event.getDelta();
+		if (delta != null) {
+			update(delta);
+		}
+	};
+
+	CaseFoldedPathIndex() {
+		ResourcesPlugin.getWorkspace().addResourceChangeListener(listener, IResourceChangeEvent.POST_CHANGE);
+	}
+
+	static @NonNull CaseFoldedPathIndex getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Stops tracking workspace changes. For the {@linkplain #getInstance()
+	 * shared instance}, only called once the bundle stops.
+	 */
+	void dispose() {
+		ResourcesPlugin.getWorkspace().removeResourceChangeListener(listener);
+	}
+
+	/**
+	 * @return Whether the index was built or restored already.
+	 */
+	boolean isBuilt() {
+		return root != null;
+	}
+
+	/**
+	 * Returns the workspace resource at {@code path}, matching every segment
+	 * case-insensitively, following the contract of
+	 * {@link UriUtils#toIResource(org.eclipse.emf.common.util.URI)}.
+	 *
+	 * <p>
+	 * The longest existing prefix of {@code path} is replaced by its actual
+	 * spelling; the remaining segments are kept as-is.
+	 * </p>
+	 */
+	@NonNull IResource findResource(final @NonNull IPath path) {
+		IWorkspaceRoot workspaceRoot = ResourcesPlugin.getWorkspace().getRoot();
+		Node node = getRoot(workspaceRoot);
+
+		int segmentCount = path.segmentCount();
+		StringBuilder actual = new StringBuilder();
+		int matched = 0;
+		for (; matched < segmentCount; matched++) {
+			Node child = node.getChild(fold(path.segment(matched)));
+			if (child == null) {
+				break;
+			}
+
+			node = child;
+			actual.append(IPath.SEPARATOR).append(child.name);
+		}
+
+		if (matched == segmentCount) {
+			return toResource(workspaceRoot, node, actual);
+		}
+
+		for (int i = matched; i < segmentCount; i++) {
+			actual.append(IPath.SEPARATOR).append(path.segment(i));
+		}
+		return workspaceRoot.getFile(Path.fromOSString(actual.toString()));
+	}
+
+	/**
+	 * Writes the index to {@code file}, if it was built already.
+	 *
+	 * @return Whether the index was written.
+	 */
+	synchronized boolean save(final @NonNull File file) throws IOException {
+		Node current = root;
+		if (current == null) {
+			return false;
+		}
+
+		try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+			output.writeInt(FILE_MAGIC);
+			output.writeInt(FILE_VERSION);
+			writeNode(output, current);
+		}
+		return true;
+	}
+
+	/**
+	 * Starts queuing live changes until {@link #endRestore()}, unless the index
+	 * was built already. Call this before registering the save participant, as
+	 * the saved-state delta only covers the changes until then.
+	 *
+	 * @return Whether live changes are queued.
+	 */
+	synchronized boolean beginRestore() {
+		if (root != null || pending != null) {
+			return false;
+		}
+
+		pending = new ArrayList<>();
+		return true;
+	}
+
+	/**
+	 * Stops queuing live changes. Queued changes not needed by
+	 * {@link #restore(File, ISavedState)} are dropped, as the index is then
+	 * built on first use.
+	 */
+	synchronized void endRestore() {
+		pending = null;
+	}
+
+	/**
+	 * Restores the index from {@code file}, unless it was built already, and
+	 * applies the changes since {@code file} was saved from {@code savedState}.
+	 *
+	 * <p>
+	 * The index is restored aside and only published once it caught up with
+	 * {@code savedState} and the changes queued since
+	 * {@link #beginRestore()}.
+	 * </p>
+	 *
+	 * @throws IOException
+	 *             If {@code file} is unusable, or {@code savedState} provides no
+	 *             changes since {@code file} was saved. The index is then built
+	 *             on first use.
+	 */
+	void restore(final @NonNull File file, final @Nullable ISavedState savedState) throws IOException {
+		if (root != null) {
+			return;
+		}
+		if (savedState == null) {
+			throw new IOException("No changes since saving available: " + file);
+		}
+
+		Node restored;
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			// Not mapped: a mapping keeps the file locked on Windows until
+			// garbage collected, so it could not be deleted after the next save
+			long size = channel.size();
+			if (size > Integer.MAX_VALUE) {
+				throw new IOException("Corrupt index: " + file);
+			}
+			ByteBuffer buffer = ByteBuffer.allocate((int) size);
+			while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+				// Read until full
+			}
+			buffer.flip();
+			if (buffer.getInt() != FILE_MAGIC || buffer.getInt() != FILE_VERSION) {
+				throw new IOException("Unknown index format: " + file);
+			}
+			restored = readNode(buffer);
+		} catch (BufferUnderflowException | IllegalArgumentException e) {
+			throw new IOException("Corrupt index: " + file, e);
+		}
+
+		// Not holding the monitor: processResourceChangeEvents() acquires the
+		// workspace lock
+		List<Change> changes = new ArrayList<>();
+		boolean[] caughtUp = { false };
+		savedState.processResourceChangeEvents(event -> {
+			IResourceDelta delta = event.getDelta();
+			if (delta != null) {
+				caughtUp[0] = collectChanges(delta, changes);
+			}
+		});
+		if (!caughtUp[0]) {
+			// Without delta, the restored index might miss any change
+			throw new IOException("No changes since saving available: " + file);
+		}
+
+		try {
+			apply(restored, changes);
+			synchronized (this) {
+				if (root != null) {
+					return;
+				}
+				if (pending != null) {
+					// Might repeat changes of the saved-state delta; applying
+					// changes is idempotent
+					apply(restored, pending);
+					pending.clear();
+				}
+				root = restored;
+			}
+		} catch (CoreException e) {
+			throw new IOException("Cannot catch up index: " + file, e);
+		}
+	}
+
+	private static void writeNode(final @NonNull DataOutputStream output, final @NonNull Node node)
+			throws IOException {
+		byte[] name = node.name.getBytes(StandardCharsets.UTF_8);
+		Map<String, Node> children = node.children;
+
+		output.writeByte(node.type | (node.ambiguous ? AMBIGUOUS_FLAG : 0));
+		output.writeShort(name.length);
+		output.write(name);
+		output.writeInt(children != null ? children.size() : 0);
+		if (children != null) {
+			for (Node child : children.values()) {
+				writeNode(output, child);
+			}
+		}
+	}
+
+	private static @NonNull Node readNode(final @NonNull ByteBuffer buffer) {
+		int flags = buffer.get() & 0xFF;
+		byte[] name = new byte[buffer.getShort() & 0xFFFF];
+		buffer.get(name);
+
+		Node result = new Node(new String(name, StandardCharsets.UTF_8), flags & ~AMBIGUOUS_FLAG);
+		result.ambiguous = (flags & AMBIGUOUS_FLAG) != 0;
+
+		int childCount = buffer.getInt();
+		if (childCount > 0) {
+			Map<String, Node> children = new ConcurrentHashMap<>(childCount);
+			for (int i = 0; i < childCount; i++) {
+				Node child = readNode(buffer);
+				children.put(fold(child.name), child);
+			}
+			result.children = children;
+		}
+		return result;
+	}
+
+	private static @NonNull IResource toResource(final @NonNull IWorkspaceRoot workspaceRoot, final @NonNull Node node,
+			final @NonNull StringBuilder actual) {
+		switch (node.type) {
+		case IResource.ROOT:
+			return workspaceRoot;
+		case IResource.PROJECT:
+			return workspaceRoot.getProject(node.name);
+		case IResource.FOLDER:
+			return workspaceRoot.getFolder(Path.fromOSString(actual.toString()));
+		default:
+			return workspaceRoot.getFile(Path.fromOSString(actual.toString()));
+		}
+	}
+
+	private @NonNull Node getRoot(final @NonNull IWorkspaceRoot workspaceRoot) {
+		Node result = root;
+		if (result != null) {
+			return result;
+		}
+
+		synchronized (buildLock) {
+			while (true) {
+				synchronized (this) {
+					result = root;
+					if (result != null) {
+						return result;
+					}
+					building = new ArrayList<>();
+				}
+
+				// Not holding the monitor, so live deltas queue up meanwhile
+				Node fresh = new Node("", IResource.ROOT);
+				try {
+					addSubtree(fresh, workspaceRoot);
+				} catch (CoreException e) {
+					synchronized (this) {
+						building = null;
+					}
+					throw new IllegalStateException("Cannot index workspace", e);
+				}
+
+				synchronized (this) {
+					List<Change> changes = building;
+					building = null;
+					if (root != null) {
+						// Restored meanwhile
+						return root;
+					}
+					if (changes == null) {
+						// A change was lost, walk again
+						continue;
+					}
+
+					try {
+						// Might repeat changes the walk saw already; applying
+						// changes is idempotent
+						apply(fresh, changes);
+					} catch (CoreException e) {
+						continue;
+					}
+					root = fresh;
+					return fresh;
+				}
+			}
+		}
+	}
+
+	private void update(final @NonNull IResourceDelta delta) {
+		synchronized (this) {
+			if (root == null && pending == null && building == null) {
+				// Not built yet, the first lookup will see the current state
+				return;
+			}
+		}
+
+		List<Change> changes = new ArrayList<>();
+		boolean collected = collectChanges(delta, changes);
+
+		synchronized (this) {
+			Node current = root;
+			if (current == null) {
+				if (building != null) {
+					if (collected) {
+						building.addAll(changes);
+					} else {
+						building = null;
+					}
+				}
+				if (pending != null) {
+					if (collected) {
+						pending.addAll(changes);
+					} else {
+						// Fall back to building on first use
+						pending = null;
+					}
+				}
+				return;
+			}
+
+			if (!collected) {
+				// Rebuild from scratch on next lookup
+				root = null;
+				return;
+			}
+
+			try {
+				apply(current, changes);
+			} catch (CoreException e) {
+				root = null;
+			}
+		}
+	}
+
+	/**
+	 * @return Whether all changes of {@code delta} were added to
+	 *         {@code changes}.
+	 */
+	private static boolean collectChanges(final @NonNull IResourceDelta delta, final @NonNull List<Change> changes) {
+		try {
+			delta.accept(d -> {
+				IResource resource = d.getResource();
+				switch (d.getKind()) {
+				case IResourceDelta.ADDED:
+					changes.add(new Change(IResourceDelta.ADDED, resource));
+					return true;
+				case IResourceDelta.REMOVED:
+					changes.add(new Change(IResourceDelta.REMOVED, resource));
+					return false;
+				default:
+					if ((d.getFlags() & IResourceDelta.OPEN) != 0) {
+						// Opening a project does not report its members
+						changes.add(new Change(IResourceDelta.OPEN, resource));
+						return false;
+					}
+					if ((d.getFlags() & TYPE_CHANGES) != 0) {
+						changes.add(new Change(IResourceDelta.TYPE, resource));
+					}
+					return true;
+				}
+			});
+			return true;
+		} catch (CoreException e) {
+			return false;
+		}
+	}
+
+	private static void apply(final @NonNull Node rootNode, final @NonNull List<Change> changes)
+			throws CoreException {
+		for (Change change : changes) {
+			IResource resource = change.resource;
+			switch (change.kind) {
+			case IResourceDelta.ADDED:
+				add(rootNode, resource);
+				break;
+			case IResourceDelta.REMOVED:
+				remove(rootNode, resource);
+				break;
+			case IResourceDelta.OPEN:
+				reindex(rootNode, resource);
+				break;
+			default:
+				Node node = find(rootNode, resource.getFullPath());
+				if (node != null) {
+					node.type = resource.getType();
+				}
+				break;
+			}
+		}
+	}
+
+	private static void add(final @NonNull Node rootNode, final @NonNull IResource resource) {
+		Node parent = find(rootNode, resource.getFullPath().removeLastSegments(1));
+		if (parent != null) {
+			addChild(parent, resource.getName(), resource.getType());
+		}
+	}
+
+	private static @NonNull Node addChild(final @NonNull Node parent, final @NonNull String name, final int type) {
+		Map<String, Node> children = parent.getOrCreateChildren();
+		String key = fold(name);
+		Node existing = children.get(key);
+		if (existing != null) {
+			if (existing.name.equals(name)) {
+				existing.type = type;
+			} else {
+				existing.ambiguous = true;
+			}
+			return existing;
+		}
+
+		Node created = new Node(name, type);
+		children.put(key, created);
+		return created;
+	}
+
+	private static void remove(final @NonNull Node rootNode, final @NonNull IResource resource) {
+		IPath path = resource.getFullPath();
+		Node parent = find(rootNode, path.removeLastSegments(1));
+		if (parent == null || parent.children == null) {
+			return;
+		}
+
+		String key = fold(resource.getName());
+		Node node = parent.children.get(key);
+		if (node == null || !node.name.equals(resource.getName())) {
+			return;
+		}
+
+		parent.children.remove(key);
+		if (node.ambiguous) {
+			// Promote the remaining sibling that differs only in case
+			IContainer container = resource.getParent();
+			if (container != null && container.isAccessible()) {
+				try {
+					for (IResource member : container.members(MEMBER_FLAGS)) {
+						if (fold(member.getName()).equals(key)) {
+							Node promoted = addChild(parent, member.getName(), member.getType());
+							if (promoted.name.equals(member.getName())) {
+								addSubtree(promoted, member);
+							}
+						}
+					}
+				} catch (CoreException e) {
+					// Parent vanished concurrently; a later delta will tell
+				}
+			}
+		}
+	}
+
+	private static void reindex(final @NonNull Node rootNode, final @NonNull IResource resource) throws CoreException {
+		Node node = find(rootNode, resource.getFullPath());
+		if (node == null) {
+			add(rootNode, resource);
+			node = find(rootNode, resource.getFullPath());
+			if (node == null) {
+				return;
+			}
+		}
+
+		// Build aside, so concurrent lookups never see a half-filled project
+		Node fresh = new Node(node.name, node.type);
+		addSubtree(fresh, resource);
+		node.children = fresh.children;
+	}
+
+	private static void addSubtree(final @NonNull Node node, final @NonNull IResource resource) throws CoreException {
+		if (!(resource instanceof IContainer) || !resource.isAccessible()) {
+			return;
+		}
+
+		int baseCount = resource.getFullPath().segmentCount();
+		resource.accept(proxy -> {
+			IPath relative = proxy.requestFullPath().removeFirstSegments(baseCount);
+			if (relative.segmentCount() == 0) {
+				return true;
+			}
+
+			Node parent = find(node, relative.removeLastSegments(1));
+			if (parent == null) {
+				// Below a sibling dropped as ambiguous
+				return false;
+			}
+			addChild(parent, proxy.getName(), proxy.getType());
+			return true;
+		}, MEMBER_FLAGS);
+	}
+
+	/**
+	 * Returns the node at {@code path} relative to {@code start}, matching every
+	 * segment case-sensitively.
+	 */
+	private static @Nullable Node find(final @NonNull Node start, final @NonNull IPath path) {
+		Node node = start;
+		for (int i = 0; i < path.segmentCount() && node != null; i++) {
+			String segment = path.segment(i);
+			node = node.getChild(fold(segment));
+			if (node != null && !node.name.equals(segment)) {
+				return null;
+			}
+		}
+		return node;
+	}
+
+	private static @NonNull String fold(final @NonNull String name) {
+		return name.toLowerCase(Locale.ROOT);
+	}
+}
@@ -0,0 +1,436 @@
+package org.eclipse.commons.emf;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.ISavedState;
+import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Caches content fingerprints of workspace files, e.g. to decide which models
+ * an incremental build needs to reload.
+ *
+ * <p>
+ * A fingerprint is the {@value #ALGORITHM} digest of the file contents. It is
+ * cached together with the {@linkplain IResource#getModificationStamp()
+ * modification stamp} and {@linkplain IResource#getLocalTimeStamp() local time
+ * stamp} of the file. As long as both stamps are unchanged, the cached
+ * fingerprint is returned without reading the file. Changes outside of the
+ * workspace are noticed once the file is
+ * {@linkplain IResource#refreshLocal(int, org.eclipse.core.runtime.IProgressMonitor)
+ * refreshed}.
+ * </p>
+ *
+ * <p>
+ * Call {@link #enablePersistence()} to reuse the fingerprints of the last
+ * session. As every entry is validated against the current stamps, entries
+ * of files changed meanwhile are recomputed on first use. Entries of files
+ * deleted meanwhile are dropped on restore and on every save.
+ * </p>
+ *
+ * <p>
+ * This class is thread-safe.
+ * </p>
+ *
+ * @author Niko Stotz
+ *
+ * @since 0.2
+ *
+ */
+public final class ContentFingerprints {
+	/**
+	 * Digest algorithm of all fingerprints.
+	 *
+	 * @since 0.2
+	 */
+	public static final String ALGORITHM = "SHA-256";
+
+	private static final int FILE_MAGIC = 0x43465052; // "CFPR"
+
+	private static final int FILE_VERSION = 1;
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private static final ContentFingerprints INSTANCE = new ContentFingerprints();
+
+	private static final class Entry {
+		final long modificationStamp;
+		final long localTimeStamp;
+		final byte[] fingerprint;
+
+		Entry(final long modificationStamp, final long localTimeStamp, final byte[] fingerprint) {
+			this.modificationStamp = modificationStamp;
+			this.localTimeStamp = localTimeStamp;
+			this.fingerprint = fingerprint;
+		}
+	}
+
+	/** Transports a CoreException out of a parallel stream */
+	private static final class WrappedCoreException extends RuntimeException {
+		private static final long serialVersionUID = 1L;
+
+		WrappedCoreException(final CoreException cause) {
+			super(cause);
+		}
+
+		@Override
+		public synchronized CoreException getCause() {
+			return (CoreException) super.getCause();
+		}
+	}
+
+	private final class Persistence implements StateSaveParticipant.Persistable {
+		@Override
+		public @NonNull String getName() {
+			return "contentFingerprints";
+		}
+
+		@Override
+		public boolean save(final @NonNull File file) throws IOException {
+			return ContentFingerprints.this.save(file);
+		}
+
+		@Override
+		public void restore(final @NonNull File file, final @Nullable ISavedState savedState) throws IOException {
+			ContentFingerprints.this.restore(file);
+		}
+	}
+
+	/** Guarded by itself; only held for trie operations */
+	private final PathTrie<Entry> entries = new PathTrie<>();
+
+	private final Persistence persistence = new Persistence();
+
+	private final IResourceChangeListener listener = event -> {
+		IResourceDelta delta = event.getDelta();
+		if (delta != null && !isEmpty()) {
+			removeDeleted(delta);
+		}
+	};
+
+	private ContentFingerprints() {
+		ResourcesPlugin.getWorkspace().addResourceChangeListener(listener, IResourceChangeEvent.POST_CHANGE);
+	}
+
+	/**
+	 * Returns the shared instance.
+	 *
+	 * @return The shared instance.
+	 *
+	 * @since 0.2
+	 */
+	public static @NonNull ContentFingerprints getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Stops tracking workspace changes once the bundle stops.
+	 */
+	void dispose() {
+		ResourcesPlugin.getWorkspace().removeResourceChangeListener(listener);
+	}
+
+	/**
+	 * Returns the fingerprint of {@code file}, computing it only if the file
+	 * changed since it was last fingerprinted.
+	 *
+	 * @param file
+	 *            File to fingerprint.
+	 * @return The {@value #ALGORITHM} digest of the contents of {@code file}, or
+	 *         {@code null} if {@code file} does not exist.
+	 *
+	 * @throws CoreException
+	 *             If the contents of {@code file} cannot be read.
+	 *
+	 * @since 0.2
+	 */
+	public byte @Nullable [] getFingerprint(final @NonNull IFile file) throws CoreException {
+		Entry entry = getEntry(file);
+		return entry != null ? entry.fingerprint.clone() : null;
+	}
+
+	/**
+	 * Returns the fingerprint of the file {@code uri}
+	 * {@linkplain UriUtils#toIResource(URI) resolves to}, computing it only if
+	 * the file changed since it was last fingerprinted.
+	 *
+	 * @param uri
+	 *            URI of the file to fingerprint.
+	 * @return The {@value #ALGORITHM} digest of the contents of the file, or
+	 *         {@code null} if {@code uri} does not resolve to an existing file.
+	 *
+	 * @throws CoreException
+	 *             If the contents of the file cannot be read.
+	 * @throws IllegalArgumentException
+	 *             If {@code uri} is seriously ill-formatted.
+	 *
+	 * @since 0.2
+	 */
+	public byte @Nullable [] getFingerprint(final @NonNull URI uri) throws CoreException {
+		IResource resource = UriUtils.toIResource(uri);
+		return resource instanceof IFile ? getFingerprint((IFile) resource) : null;
+	}
+
+	/**
+	 * Returns the fingerprints of all {@code files}. Missing fingerprints are
+	 * computed in parallel.
+	 *
+	 * @param files
+	 *            Files to fingerprint.
+	 * @return The {@value #ALGORITHM} digest of the contents of each existing
+	 *         file in {@code files}. Files that don't exist are omitted.
+	 *
+	 * @throws CoreException
+	 *             If the contents of any file cannot be read.
+	 *
+	 * @since 0.2
+	 */
+	public @NonNull Map<IFile, byte[]> getFingerprints(final @NonNull Collection<@NonNull IFile> files)
+			throws CoreException {
+		Map<IFile, byte[]> result = new ConcurrentHashMap<>(files.size() * 4 / 3 + 1);
+		try {
+			files.parallelStream().forEach(file -> {
+				try {
+					Entry entry = getEntry(file);
+					if (entry != null) {
+						result.put(file, entry.fingerprint.clone());
+					}
+				} catch (CoreException e) {
+					throw new WrappedCoreException(e);
+				}
+			});
+			return result;
+		} catch (WrappedCoreException e) {
+			throw e.getCause();
+		}
+	}
+
+	/**
+	 * Registers a workspace save participant to persist the fingerprints across
+	 * sessions, and restores the fingerprints of the last session, if
+	 * available.
+	 *
+	 * <p>
+	 * Call this method early, e.g. when the application starts. Subsequent
+	 * calls have no effect.
+	 * </p>
+	 *
+	 * @throws CoreException
+	 *             If the workspace save participant cannot be registered.
+	 *
+	 * @since 0.2
+	 */
+	public void enablePersistence() throws CoreException {
+		StateSaveParticipant.enable(persistence);
+	}
+
+	/**
+	 * Forgets all cached fingerprints.
+	 *
+	 * @since 0.2
+	 */
+	public void clear() {
+		synchronized (entries) {
+			entries.removeSubtree(Path.ROOT);
+		}
+	}
+
+	private boolean isEmpty() {
+		synchronized (entries) {
+			return entries.size() == 0;
+		}
+	}
+
+	private @Nullable Entry getEntry(final @NonNull IFile file) throws CoreException {
+		// Read the stamps before the contents: A concurrent change then
+		// results in newer stamps, and the stale entry is recomputed next time
+		long modificationStamp = file.getModificationStamp();
+		if (modificationStamp == IResource.NULL_STAMP) {
+			return null;
+		}
+		long localTimeStamp = file.getLocalTimeStamp();
+
+		IPath path = file.getFullPath();
+		Entry entry;
+		synchronized (entries) {
+			entry = entries.get(path);
+		}
+		if (entry != null && entry.modificationStamp == modificationStamp && entry.localTimeStamp == localTimeStamp) {
+			return entry;
+		}
+
+		entry = new Entry(modificationStamp, localTimeStamp, digest(file));
+		synchronized (entries) {
+			entries.put(path, entry);
+		}
+		return entry;
+	}
+
+	private static byte @NonNull [] digest(final @NonNull IFile file) throws CoreException {
+		MessageDigest digest = createDigest();
+		byte[] buffer = new byte[BUFFER_SIZE];
+		try (InputStream input = file.getContents(true)) {
+			int read;
+			while ((read = input.read(buffer)) != -1) {
+				digest.update(buffer, 0, read);
+			}
+		} catch (IOException e) {
+			throw new CoreException(
+					new Status(IStatus.ERROR, Activator.BUNDLE_ID, "Cannot read contents of " + file.getFullPath(), e));
+		}
+		return digest.digest();
+	}
+
+	private static @NonNull MessageDigest createDigest() {
+		try {
+			return MessageDigest.getInstance(ALGORITHM);
+		} catch (NoSuchAlgorithmException e) {
+			// Every Java platform is required to support SHA-256
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private void removeDeleted(final @NonNull IResourceDelta delta) {
+		List<IPath> removed = new ArrayList<>();
+		try {
+			delta.accept(child -> {
+				if (child.getKind() == IResourceDelta.REMOVED) {
+					removed.add(child.getFullPath());
+					return false;
+				}
+				return true;
+			});
+		} catch (CoreException e) {
+			// Stale entries are still validated against the stamps
+		}
+
+		if (!removed.isEmpty()) {
+			synchronized (entries) {
+				for (IPath path : removed) {
+					entries.removeSubtree(path);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Drops the entries of files that don't exist anymore, e.g. as they were
+	 * deleted while the workspace was closed.
+	 *
+	 * @return The entries of all existing files by path.
+	 */
+	private @NonNull Map<IPath, Entry> removeMissing() {
+		Map<IPath, Entry> result = new LinkedHashMap<>();
+		synchronized (entries) {
+			entries.forEach(result::put);
+		}
+
+		IWorkspaceRoot workspaceRoot = ResourcesPlugin.getWorkspace().getRoot();
+		List<IPath> missing = new ArrayList<>(0);
+		for (IPath path : result.keySet()) {
+			if (path.segmentCount() < 2 || !workspaceRoot.getFile(path).exists()) {
+				missing.add(path);
+			}
+		}
+		result.keySet().removeAll(missing);
+
+		if (!missing.isEmpty()) {
+			synchronized (entries) {
+				for (IPath path : missing) {
+					entries.remove(path);
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Writes the entries of all existing files to {@code file}.
+	 *
+	 * @return Whether anything was written.
+	 */
+	boolean save(final @NonNull File file) throws IOException {
+		Map<IPath, Entry> existing = removeMissing();
+		if (existing.isEmpty()) {
+			return false;
+		}
+
+		try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+			output.writeInt(FILE_MAGIC);
+			output.writeInt(FILE_VERSION);
+			output.writeUTF(ALGORITHM);
+			for (Map.Entry<IPath, Entry> mapEntry : existing.entrySet()) {
+				Entry entry = mapEntry.getValue();
+				output.writeBoolean(true);
+				output.writeUTF(mapEntry.getKey().toString());
+				output.writeLong(entry.modificationStamp);
+				output.writeLong(entry.localTimeStamp);
+				output.writeShort(entry.fingerprint.length);
+				output.write(entry.fingerprint);
+			}
+			output.writeBoolean(false);
+		}
+		return true;
+	}
+
+	/**
+	 * Adds the entries of all existing files from {@code file}, unless already
+	 * present.
+	 */
+	void restore(final @NonNull File file) throws IOException {
+		try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (input.readInt() != FILE_MAGIC || input.readInt() != FILE_VERSION
+					|| !ALGORITHM.equals(input.readUTF())) {
+				throw new IOException("Unknown fingerprint format: " + file);
+			}
+
+			while (input.readBoolean()) {
+				IPath path = new Path(input.readUTF());
+				long modificationStamp = input.readLong();
+				long localTimeStamp = input.readLong();
+				byte[] fingerprint = new byte[input.readUnsignedShort()];
+				input.readFully(fingerprint);
+				synchronized (entries) {
+					// Entries computed in this session are more recent
+					if (entries.get(path) == null) {
+						entries.put(path, new Entry(modificationStamp, localTimeStamp, fingerprint));
+					}
+				}
+			}
+		} catch (EOFException e) {
+			throw new IOException("Corrupt fingerprints: " + file, e);
+		}
+
+		removeMissing();
+	}
+}
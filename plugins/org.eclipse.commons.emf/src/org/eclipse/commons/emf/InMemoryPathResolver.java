@@ -0,0 +1,177 @@
+package org.eclipse.commons.emf;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * {@link PathResolver} backed by a plain, in-memory path tree.
+ *
+ * <p>
+ * The tree does not depend on the Eclipse workspace. It starts out containing
+ * only the workspace root. Adding a resource implicitly adds its missing
+ * parents as project and folders. Adding an existing resource again has no
+ * effect; adding it with another type is rejected. Paths are case-sensitive,
+ * like in
+ * {@link UriUtils#toIResource(org.eclipse.emf.common.util.URI)}.
+ * </p>
+ *
+ * <p>
+ * Instances are thread-safe. Lookups take no lock; modifications are
+ * serialized.
+ * </p>
+ *
+ * @author Niko Stotz
+ *
+ * @since 0.2
+ *
+ */
+public class InMemoryPathResolver implements PathResolver {
+	private static final class Node {
+		private final int type;
+
+		private volatile Map<String, Node> children = null;
+
+		Node(final int type) {
+			this.type = type;
+		}
+
+		@Nullable Node getChild(final @NonNull String name) {
+			Map<String, Node> current = children;
+			return current != null ? current.get(name) : null;
+		}
+
+		@NonNull Map<String, Node> getOrCreateChildren() {
+			Map<String, Node> result = children;
+			if (result == null) {
+				result = new ConcurrentHashMap<>(4);
+				children = result;
+			}
+			return result;
+		}
+	}
+
+	private final Node root = new Node(IResource.ROOT);
+
+	/**
+	 * Adds a project.
+	 *
+	 * @param path
+	 *            Path of the project; must have exactly one segment.
+	 *
+	 * @throws IllegalArgumentException
+	 *             If {@code path} does not have exactly one segment.
+	 *
+	 * @since 0.2
+	 */
+	public void addProject(final @NonNull IPath path) {
+		if (path.segmentCount() != 1) {
+			throw new IllegalArgumentException("Project paths must have exactly one segment: " + path);
+		}
+		add(path, IResource.PROJECT);
+	}
+
+	/**
+	 * Adds a folder, and all its missing parents.
+	 *
+	 * @param path
+	 *            Path of the folder; must have at least two segments.
+	 *
+	 * @throws IllegalArgumentException
+	 *             If {@code path} has less than two segments, any parent is a
+	 *             file, or a resource of another type exists at {@code path}.
+	 *
+	 * @since 0.2
+	 */
+	public void addFolder(final @NonNull IPath path) {
+		checkMember(path);
+		add(path, IResource.FOLDER);
+	}
+
+	/**
+	 * Adds a file, and all its missing parents.
+	 *
+	 * @param path
+	 *            Path of the file; must have at least two segments.
+	 *
+	 * @throws IllegalArgumentException
+	 *             If {@code path} has less than two segments, any parent is a
+	 *             file, or a resource of another type exists at {@code path}.
+	 *
+	 * @since 0.2
+	 */
+	public void addFile(final @NonNull IPath path) {
+		checkMember(path);
+		add(path, IResource.FILE);
+	}
+
+	/**
+	 * Removes the resource at {@code path}, and all its descendants.
+	 *
+	 * @param path
+	 *            Path of the resource to remove.
+	 * @return Whether a resource existed at {@code path}.
+	 *
+	 * @since 0.2
+	 */
+	public synchronized boolean remove(final @NonNull IPath path) {
+		if (path.segmentCount() == 0) {
+			return false;
+		}
+
+		Node parent = find(path.removeLastSegments(1));
+		if (parent == null || parent.children == null) {
+			return false;
+		}
+		return parent.children.remove(path.lastSegment()) != null;
+	}
+
+	@Override
+	public int getType(final @NonNull IPath path) {
+		Node node = find(path);
+		return node != null ? node.type : IResource.NONE;
+	}
+
+	private synchronized void add(final @NonNull IPath path, final int type) {
+		Node node = root;
+		int segmentCount = path.segmentCount();
+		for (int i = 0; i < segmentCount; i++) {
+			if (node.type == IResource.FILE) {
+				throw new IllegalArgumentException("Parent is a file: " + path.uptoSegment(i));
+			}
+
+			String segment = path.segment(i);
+			boolean last = i == segmentCount - 1;
+			int expectedType = last ? type : (i == 0 ? IResource.PROJECT : IResource.FOLDER);
+
+			Map<String, Node> children = node.getOrCreateChildren();
+			Node child = children.get(segment);
+			if (child == null) {
+				child = new Node(expectedType);
+				children.put(segment, child);
+			} else if (last && child.type != type) {
+				// Replacing the node would silently drop its descendants
+				throw new IllegalArgumentException("Resource of another type exists: " + path);
+			}
+			node = child;
+		}
+	}
+
+	private @Nullable Node find(final @NonNull IPath path) {
+		Node node = root;
+		for (int i = 0, segmentCount = path.segmentCount(); i < segmentCount && node != null; i++) {
+			node = node.getChild(path.segment(i));
+		}
+		return node;
+	}
+
+	private static void checkMember(final @NonNull IPath path) {
+		if (path.segmentCount() < 2) {
+			throw new IllegalArgumentException("Folder and file paths must have at least two segments: " + path);
+		}
+	}
+}
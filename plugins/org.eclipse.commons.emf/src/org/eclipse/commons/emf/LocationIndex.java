@@ -0,0 +1,416 @@
+package org.eclipse.commons.emf;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.resources.IContainer;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Maps file system locations to workspace resources.
+ *
+ * <p>
+ * The index contains the locations of all open projects, and of all
+ * {@linkplain IResource#isLinked() linked} folders and files inside them
+ * (including those inside virtual folders). Thus, a location may map to
+ * several workspace resources, i.e. aliases. Lookups cost one hash lookup per
+ * segment of the location, instead of scanning all projects like
+ * {@link IWorkspaceRoot#findFilesForLocationURI(java.net.URI)}.
+ * </p>
+ *
+ * <p>
+ * The project locations are collected from the workspace root, and collected
+ * again after any project was added, removed, opened, closed, or changed its
+ * description. The linked resources are only discovered once they are needed,
+ * i.e. on the first lookup of a location outside all projects, or of all
+ * aliases. Afterwards, they are maintained from resource deltas; only projects
+ * being opened are visited again.
+ * </p>
+ *
+ * @author Niko Stotz
+ *
+ */
+final class LocationIndex {
+	private static final int PROJECT_CHANGES = IResourceDelta.OPEN | IResourceDelta.DESCRIPTION
+			| IResourceDelta.REPLACED;
+
+	private static final int LOCATION_CHANGES = IResourceDelta.LOCAL_CHANGED | IResourceDelta.REPLACED;
+
+	private static final Comparator<IResource> PATH_ORDER = Comparator
+			.comparing(resource -> resource.getFullPath().toString());
+
+	private static final LocationIndex INSTANCE = new LocationIndex();
+
+	private static final class Link {
+		final @NonNull IResource resource;
+
+		final @NonNull IPath location;
+
+		Link(final @NonNull IResource resource, final @NonNull IPath location) {
+			this.resource = resource;
+			this.location = location;
+		}
+	}
+
+	private static final class Links {
+		/** Workspace path -> linked resource */
+		final Map<IPath, Link> byPath;
+
+		/** Location -> linked resources at this location */
+		final Map<IPath, IResource[]> roots;
+
+		Links(final Map<IPath, Link> byPath) {
+			this.byPath = byPath;
+
+			Map<IPath, List<IResource>> grouped = new HashMap<>();
+			for (Link link : byPath.values()) {
+				grouped.computeIfAbsent(link.location, key -> new ArrayList<>(1)).add(link.resource);
+			}
+			this.roots = toRoots(grouped);
+		}
+	}
+
+	/** Location -> open projects at this location; {@code null} if outdated */
+	private volatile Map<IPath, IResource[]> projects = null;
+
+	/** {@code null} until first needed */
+	private volatile Links links = null;
+
+	private final IResourceChangeListener listener = event -> {
+		IResourceDelta delta = event.getDelta();
+		if (delta != null) {
+			update(delta);
+		}
+	};
+
+	private LocationIndex() {
+		ResourcesPlugin.getWorkspace().addResourceChangeListener(listener, IResourceChangeEvent.POST_CHANGE);
+	}
+
+	static @NonNull LocationIndex getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Stops tracking workspace changes once the bundle stops.
+	 */
+	void dispose() {
+		ResourcesPlugin.getWorkspace().removeResourceChangeListener(listener);
+	}
+
+	/**
+	 * Returns the canonical workspace resource at {@code location}, following
+	 * the contract of
+	 * {@link UriUtils#toIResource(org.eclipse.emf.common.util.URI)}, or
+	 * {@code null} if {@code location} is outside of all open projects and
+	 * linked resources.
+	 *
+	 * <p>
+	 * Linked resources are only consulted if {@code location} is outside of all
+	 * open projects.
+	 * </p>
+	 *
+	 * @see #findAliases(IPath)
+	 */
+	@Nullable IResource findResource(final @NonNull IPath location) {
+		IPath normalized = normalize(location);
+		List<IResource> result = new ArrayList<>(1);
+
+		collect(getProjects(), normalized, result, true);
+		if (result.isEmpty()) {
+			collect(getLinks().roots, normalized, result, true);
+		}
+
+		return result.isEmpty() ? null : result.get(0);
+	}
+
+	/**
+	 * Returns all workspace resources at {@code location}, following the
+	 * contract of {@link UriUtils#toIResource(org.eclipse.emf.common.util.URI)}.
+	 *
+	 * <p>
+	 * The first element is the canonical one: Resources inside projects come
+	 * before resources inside linked resources, each ordered from the most
+	 * specific location (i.e. a nested project) to the least specific one, and
+	 * by workspace path.
+	 * </p>
+	 */
+	@NonNull List<IResource> findAliases(final @NonNull IPath location) {
+		IPath normalized = normalize(location);
+		List<IResource> result = new ArrayList<>(1);
+
+		collect(getProjects(), normalized, result, false);
+		collect(getLinks().roots, normalized, result, false);
+
+		return result;
+	}
+
+	private static void collect(final @NonNull Map<IPath, IResource[]> roots, final @NonNull IPath location,
+			final @NonNull List<IResource> result, final boolean firstOnly) {
+		if (roots.isEmpty()) {
+			return;
+		}
+
+		for (IPath prefix = location;; prefix = prefix.removeLastSegments(1)) {
+			IResource[] candidates = roots.get(prefix);
+			if (candidates != null) {
+				IPath relative = location.removeFirstSegments(prefix.segmentCount()).setDevice(null);
+				for (IResource root : candidates) {
+					IResource member = findMember(root, relative);
+					if (member != null) {
+						result.add(member);
+						if (firstOnly) {
+							return;
+						}
+					}
+				}
+			}
+
+			if (prefix.segmentCount() == 0) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Returns the member of {@code root} at {@code relative}, or {@code null}
+	 * if the location of that member differs, i.e. a linked resource or virtual
+	 * folder is on the way.
+	 */
+	private static @Nullable IResource findMember(final @NonNull IResource root, final @NonNull IPath relative) {
+		if (relative.segmentCount() == 0) {
+			return root;
+		}
+		if (!(root instanceof IContainer)) {
+			return null;
+		}
+
+		IContainer container = (IContainer) root;
+		int segmentCount = relative.segmentCount();
+		for (int i = 0; i < segmentCount; i++) {
+			IResource member = container.findMember(relative.segment(i));
+			if (member == null) {
+				return container.getFile(relative.removeFirstSegments(i));
+			}
+			if (member.isLinked() || member.isVirtual()) {
+				// Its members live elsewhere; the location belongs to
+				// whatever, if anything, is linked to it
+				return null;
+			}
+			if (i == segmentCount - 1) {
+				return member;
+			}
+			if (!(member instanceof IContainer)) {
+				return container.getFile(relative.removeFirstSegments(i));
+			}
+			container = (IContainer) member;
+		}
+		return container;
+	}
+
+	private @NonNull Map<IPath, IResource[]> getProjects() {
+		Map<IPath, IResource[]> result = projects;
+		if (result != null) {
+			return result;
+		}
+
+		synchronized (this) {
+			result = projects;
+			if (result != null) {
+				return result;
+			}
+
+			Map<IPath, List<IResource>> grouped = new HashMap<>();
+			for (IProject project : ResourcesPlugin.getWorkspace().getRoot().getProjects()) {
+				IPath location = project.getLocation();
+				if (project.isOpen() && location != null) {
+					grouped.computeIfAbsent(normalize(location), key -> new ArrayList<>(1)).add(project);
+				}
+			}
+			result = toRoots(grouped);
+			projects = result;
+			return result;
+		}
+	}
+
+	private @NonNull Links getLinks() {
+		Links result = links;
+		if (result != null) {
+			return result;
+		}
+
+		synchronized (this) {
+			result = links;
+			if (result != null) {
+				return result;
+			}
+
+			Map<IPath, Link> byPath = new HashMap<>();
+			for (IProject project : ResourcesPlugin.getWorkspace().getRoot().getProjects()) {
+				discoverLinks(project, byPath);
+			}
+			result = new Links(byPath);
+			links = result;
+			return result;
+		}
+	}
+
+	private static void discoverLinks(final @NonNull IProject project, final @NonNull Map<IPath, Link> byPath) {
+		if (!project.isOpen()) {
+			return;
+		}
+
+		try {
+			project.accept(proxy -> {
+				if (proxy.isLinked()) {
+					putLink(byPath, proxy.requestResource());
+					// Members of a linked folder live below its location;
+					// don't walk external trees
+					return false;
+				}
+				return proxy.getType() != IResource.FILE;
+			}, IResource.NONE);
+		} catch (CoreException e) {
+			// project became inaccessible meanwhile, the next delta tells
+		}
+	}
+
+	private static void putLink(final @NonNull Map<IPath, Link> byPath, final @NonNull IResource linked) {
+		IPath location = linked.getLocation();
+		if (location != null) {
+			byPath.put(linked.getFullPath(), new Link(linked, normalize(location)));
+		} else {
+			byPath.remove(linked.getFullPath());
+		}
+	}
+
+	private static @NonNull Map<IPath, IResource[]> toRoots(final @NonNull Map<IPath, List<IResource>> grouped) {
+		Map<IPath, IResource[]> result = new HashMap<>(grouped.size() * 4 / 3 + 1);
+		grouped.forEach((location, resources) -> {
+			IResource[] array = resources.toArray(new IResource[resources.size()]);
+			Arrays.sort(array, PATH_ORDER);
+			result.put(location, array);
+		});
+		return result;
+	}
+
+	private void update(final @NonNull IResourceDelta delta) {
+		if (projects != null && affectsProjects(delta)) {
+			invalidateProjects();
+		}
+		if (links != null) {
+			updateLinks(delta);
+		}
+	}
+
+	private synchronized void invalidateProjects() {
+		projects = null;
+	}
+
+	private static boolean affectsProjects(final @NonNull IResourceDelta delta) {
+		for (IResourceDelta projectDelta : delta.getAffectedChildren()) {
+			if (projectDelta.getKind() != IResourceDelta.CHANGED
+					|| (projectDelta.getFlags() & PROJECT_CHANGES) != 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Applies the linked resources added, removed, or relocated by
+	 * {@code delta}. Visits the delta only; projects being opened are visited
+	 * as their members are not reported.
+	 */
+	private synchronized void updateLinks(final @NonNull IResourceDelta delta) {
+		Links current = links;
+		if (current == null) {
+			return;
+		}
+
+		List<IPath> removed = new ArrayList<>(0);
+		List<IResource> added = new ArrayList<>(0);
+		List<IProject> opened = new ArrayList<>(0);
+		try {
+			delta.accept(child -> {
+				IResource resource = child.getResource();
+				switch (child.getKind()) {
+				case IResourceDelta.ADDED:
+					if (resource.isLinked()) {
+						added.add(resource);
+						return false;
+					}
+					return true;
+				case IResourceDelta.REMOVED:
+					removed.add(child.getFullPath());
+					return false;
+				default:
+					if (resource.getType() == IResource.PROJECT && (child.getFlags() & IResourceDelta.OPEN) != 0) {
+						// Opening a project does not report its members
+						removed.add(child.getFullPath());
+						opened.add((IProject) resource);
+						return false;
+					}
+					if ((child.getFlags() & LOCATION_CHANGES) != 0 && resource.isLinked()) {
+						added.add(resource);
+					}
+					return true;
+				}
+			});
+		} catch (CoreException e) {
+			// Discover again on next lookup
+			links = null;
+			return;
+		}
+
+		if (added.isEmpty() && opened.isEmpty() && !containsLinked(removed, current.byPath)) {
+			return;
+		}
+
+		Map<IPath, Link> byPath = new HashMap<>(current.byPath);
+		for (IPath path : removed) {
+			byPath.keySet().removeIf(path::isPrefixOf);
+		}
+		for (IResource resource : added) {
+			putLink(byPath, resource);
+		}
+		for (IProject project : opened) {
+			discoverLinks(project, byPath);
+		}
+		links = new Links(byPath);
+	}
+
+	private static boolean containsLinked(final @NonNull List<IPath> paths,
+			final @NonNull Map<IPath, Link> byPath) {
+		if (paths.isEmpty() || byPath.isEmpty()) {
+			return false;
+		}
+
+		for (IPath linked : byPath.keySet()) {
+			for (IPath path : paths) {
+				if (path.isPrefixOf(linked)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private static @NonNull IPath normalize(final @NonNull IPath location) {
+		return location.hasTrailingSeparator() ? location.removeTrailingSeparator() : location;
+	}
+}
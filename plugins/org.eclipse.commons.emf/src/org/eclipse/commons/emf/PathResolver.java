@@ -0,0 +1,52 @@
+package org.eclipse.commons.emf;
+
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.jdt.annotation.NonNull;
+
+/**
+ * Answers which kind of resource exists at a workspace path.
+ *
+ * <p>
+ * This is the service provider interface behind
+ * {@link UriUtils#getResourceType(org.eclipse.emf.common.util.URI, PathResolver)}.
+ * {@link #WORKSPACE} answers from the Eclipse workspace.
+ * {@link InMemoryPathResolver} answers from a plain path tree, and does not
+ * require the workspace at all; this suits headless batch tools and tests.
+ * </p>
+ *
+ * <p>
+ * Implementations must be thread-safe.
+ * </p>
+ *
+ * @author Niko Stotz
+ *
+ * @since 0.2
+ *
+ */
+public interface PathResolver {
+	/**
+	 * Resolver backed by the Eclipse workspace, following the contract of
+	 * {@link UriUtils#toIResource(org.eclipse.emf.common.util.URI)}.
+	 *
+	 * @since 0.2
+	 */
+	@NonNull PathResolver WORKSPACE = new WorkspacePathResolver();
+
+	/**
+	 * Returns the type of the resource existing at {@code path}.
+	 *
+	 * @param path
+	 *            The absolute workspace path to look up.
+	 * @return The {@linkplain org.eclipse.core.resources.IResource#getType()
+	 *         type} of the existing resource at {@code path}
+	 *         ({@link org.eclipse.core.resources.IResource#ROOT ROOT},
+	 *         {@link org.eclipse.core.resources.IResource#PROJECT PROJECT},
+	 *         {@link org.eclipse.core.resources.IResource#FOLDER FOLDER}, or
+	 *         {@link org.eclipse.core.resources.IResource#FILE FILE}), or
+	 *         {@link org.eclipse.core.resources.IResource#NONE NONE} if nothing
+	 *         exists at {@code path}.
+	 *
+	 * @since 0.2
+	 */
+	int getType(@NonNull IPath path);
+}
@@ -0,0 +1,272 @@
+package org.eclipse.commons.emf;
+
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Compact map from workspace paths to values.
+ *
+ * <p>
+ * Paths sharing a prefix share the nodes of the prefix, and segment names are
+ * {@linkplain String#intern() interned}. Each node holds its children in a
+ * sorted array, so a path costs one small node (name, value, and children
+ * array reference) plus one array slot, rather than a hash map entry with its
+ * own path or string key. Lookups do not allocate.
+ * </p>
+ *
+ * <p>
+ * Paths are treated as absolute, case-sensitive, and without trailing
+ * separator. The {@linkplain IPath#isRoot() root path} can hold a value like
+ * any other path. {@link #removeSubtree(IPath)} drops a path and all paths
+ * below it in O(size of the subtree).
+ * </p>
+ *
+ * <p>
+ * Instances are not thread-safe. Concurrent reads are safe once the trie is
+ * safely published and no longer modified. Thus, the indexes read lock-free
+ * while being updated, like {@link CaseFoldedPathIndex} and
+ * {@link InMemoryPathResolver}, keep their concurrent per-node maps.
+ * </p>
+ *
+ * @param <V>
+ *            Type of the values.
+ *
+ * @author Niko Stotz
+ *
+ */
+final class PathTrie<V> {
+	private static final Node[] NO_CHILDREN = new Node[0];
+
+	private static final class Node {
+		final @NonNull String name;
+
+		@Nullable Object value;
+
+		Node[] children = NO_CHILDREN;
+
+		int childCount;
+
+		Node(final @NonNull String name) {
+			this.name = name;
+		}
+
+		int indexOf(final @NonNull String segment) {
+			int low = 0;
+			int high = childCount - 1;
+			while (low <= high) {
+				int middle = (low + high) >>> 1;
+				int comparison = children[middle].name.compareTo(segment);
+				if (comparison < 0) {
+					low = middle + 1;
+				} else if (comparison > 0) {
+					high = middle - 1;
+				} else {
+					return middle;
+				}
+			}
+			return -(low + 1);
+		}
+
+		@Nullable Node getChild(final @NonNull String segment) {
+			int index = indexOf(segment);
+			return index >= 0 ? children[index] : null;
+		}
+
+		@NonNull Node getOrCreateChild(final @NonNull String segment) {
+			int index = indexOf(segment);
+			if (index >= 0) {
+				return children[index];
+			}
+
+			int insertion = -(index + 1);
+			if (childCount == children.length) {
+				children = Arrays.copyOf(children, childCount == 0 ? 2 : childCount + (childCount >> 1) + 1);
+			}
+			System.arraycopy(children, insertion, children, insertion + 1, childCount - insertion);
+			Node child = new Node(segment.intern());
+			children[insertion] = child;
+			childCount++;
+			return child;
+		}
+
+		void removeChild(final @NonNull String segment) {
+			int index = indexOf(segment);
+			if (index < 0) {
+				return;
+			}
+
+			childCount--;
+			System.arraycopy(children, index + 1, children, index, childCount - index);
+			children[childCount] = null;
+			if (childCount == 0) {
+				children = NO_CHILDREN;
+			} else if (childCount < children.length >> 2) {
+				// Keeps removals of many siblings from leaving large arrays behind
+				children = Arrays.copyOf(children, childCount << 1);
+			}
+		}
+
+		boolean isEmpty() {
+			return value == null && childCount == 0;
+		}
+	}
+
+	private final Node root = new Node("");
+
+	private int size = 0;
+
+	/**
+	 * Returns the value of {@code path}.
+	 *
+	 * @return The value of {@code path}; {@code null} if none.
+	 */
+	@SuppressWarnings("unchecked")
+	@Nullable V get(final @NonNull IPath path) {
+		Node node = find(path);
+		return node != null ? (V) node.value : null;
+	}
+
+	/**
+	 * Sets the value of {@code path}.
+	 *
+	 * @return The previous value of {@code path}; {@code null} if none.
+	 */
+	@SuppressWarnings("unchecked")
+	@Nullable V put(final @NonNull IPath path, final @NonNull V value) {
+		Node node = root;
+		for (int i = 0, segmentCount = path.segmentCount(); i < segmentCount; i++) {
+			node = node.getOrCreateChild(path.segment(i));
+		}
+
+		Object previous = node.value;
+		node.value = value;
+		if (previous == null) {
+			size++;
+		}
+		return (V) previous;
+	}
+
+	/**
+	 * Removes the value of {@code path}, but keeps any paths below.
+	 *
+	 * @return The previous value of {@code path}; {@code null} if none.
+	 */
+	@SuppressWarnings("unchecked")
+	@Nullable V remove(final @NonNull IPath path) {
+		Node[] nodes = findAll(path);
+		Node node = nodes[nodes.length - 1];
+		if (node == null || node.value == null) {
+			return null;
+		}
+
+		Object previous = node.value;
+		node.value = null;
+		size--;
+		prune(nodes, nodes.length - 1);
+		return (V) previous;
+	}
+
+	/**
+	 * Removes {@code path} and all paths below it.
+	 *
+	 * @return The number of removed values.
+	 */
+	int removeSubtree(final @NonNull IPath path) {
+		Node[] nodes = findAll(path);
+		int depth = nodes.length - 1;
+		Node node = nodes[depth];
+		if (node == null) {
+			return 0;
+		}
+
+		int removed = count(node);
+		size -= removed;
+		if (node == root) {
+			root.value = null;
+			root.children = NO_CHILDREN;
+			root.childCount = 0;
+		} else {
+			nodes[depth - 1].removeChild(node.name);
+			prune(nodes, depth - 1);
+		}
+		return removed;
+	}
+
+	/**
+	 * Returns the number of paths with a value.
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Passes every path with a value, and its value, to {@code action}; parents
+	 * before their children, siblings in name order.
+	 */
+	void forEach(final @NonNull BiConsumer<@NonNull IPath, @NonNull V> action) {
+		forEach(root, Path.ROOT, action);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <V> void forEach(final @NonNull Node node, final @NonNull IPath path,
+			final @NonNull BiConsumer<@NonNull IPath, @NonNull V> action) {
+		Object value = node.value;
+		if (value != null) {
+			action.accept(path, (V) value);
+		}
+		for (int i = 0; i < node.childCount; i++) {
+			Node child = node.children[i];
+			forEach(child, path.append(child.name), action);
+		}
+	}
+
+	private @Nullable Node find(final @NonNull IPath path) {
+		Node node = root;
+		for (int i = 0, segmentCount = path.segmentCount(); i < segmentCount && node != null; i++) {
+			node = node.getChild(path.segment(i));
+		}
+		return node;
+	}
+
+	/**
+	 * @return The nodes along {@code path}, starting with the root; trailing
+	 *         elements are {@code null} if {@code path} does not exist.
+	 */
+	private @Nullable Node @NonNull [] findAll(final @NonNull IPath path) {
+		int segmentCount = path.segmentCount();
+		Node[] result = new Node[segmentCount + 1];
+		Node node = root;
+		result[0] = node;
+		for (int i = 0; i < segmentCount && node != null; i++) {
+			node = node.getChild(path.segment(i));
+			result[i + 1] = node;
+		}
+		return result;
+	}
+
+	/**
+	 * Removes empty nodes from {@code nodes[depth]} upwards.
+	 */
+	private static void prune(final @Nullable Node @NonNull [] nodes, final int depth) {
+		for (int i = depth; i > 0; i--) {
+			Node node = nodes[i];
+			if (!node.isEmpty()) {
+				return;
+			}
+			nodes[i - 1].removeChild(node.name);
+		}
+	}
+
+	private static int count(final @NonNull Node node) {
+		int result = node.value != null ? 1 : 0;
+		for (int i = 0; i < node.childCount; i++) {
+			result += count(node.children[i]);
+		}
+		return result;
+	}
+}
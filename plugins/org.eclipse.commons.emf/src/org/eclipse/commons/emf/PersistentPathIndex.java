@@ -0,0 +1,63 @@
+package org.eclipse.commons.emf;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.eclipse.core.resources.ISavedState;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Persists the {@link CaseFoldedPathIndex} across sessions.
+ *
+ * <p>
+ * On every full workspace save, the index is written to the state location of
+ * this bundle. On {@linkplain #enable() enabling}, the index of the last
+ * session is restored and caught up with the saved-state delta, instead of
+ * being rebuilt by visiting the whole workspace. Missing or corrupt index
+ * files, and index files without saved-state delta, are ignored; the index is
+ * then built on first use as usual.
+ * </p>
+ *
+ * @author Niko Stotz
+ *
+ */
+final class PersistentPathIndex implements StateSaveParticipant.Persistable {
+	private static final PersistentPathIndex INSTANCE = new PersistentPathIndex();
+
+	private PersistentPathIndex() {
+	}
+
+	/**
+	 * Registers the save participant and restores the index of the last
+	 * session, if available. Subsequent calls have no effect.
+	 */
+	static void enable() throws CoreException {
+		CaseFoldedPathIndex index = CaseFoldedPathIndex.getInstance();
+		// Queue live deltas until the saved-state delta is applied
+		boolean restoring = index.beginRestore();
+		try {
+			StateSaveParticipant.enable(INSTANCE);
+		} finally {
+			if (restoring) {
+				index.endRestore();
+			}
+		}
+	}
+
+	@Override
+	public @NonNull String getName() {
+		return "caseFoldedPathIndex";
+	}
+
+	@Override
+	public boolean save(final @NonNull File file) throws IOException {
+		return CaseFoldedPathIndex.getInstance().save(file);
+	}
+
+	@Override
+	public void restore(final @NonNull File file, final @Nullable ISavedState savedState) throws IOException {
+		CaseFoldedPathIndex.getInstance().restore(file, savedState);
+	}
+}
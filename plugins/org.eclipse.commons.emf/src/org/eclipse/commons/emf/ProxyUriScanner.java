@@ -0,0 +1,231 @@
+package org.eclipse.commons.emf;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.URIConverter;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Finds the resources referenced by XMI or XML files without loading them.
+ *
+ * <p>
+ * The scanner streams through the file with StAX and never builds the EMF
+ * object graph. Thus, its memory use does not depend on the size of the file,
+ * only on the number of distinct referenced resources.
+ * </p>
+ *
+ * <p>
+ * It reports the value of every {@code href} attribute, as written for
+ * cross-document containment and non-containment references. Additionally, it
+ * reports every whitespace-separated token of other attributes that contains a
+ * fragment separator ({@code #}) behind a non-empty resource part, as written
+ * for cross-document references in attributes (e.g.
+ * {@code eType="ecore:EClass other.ecore#//MyClass"}). As the scanner does not
+ * know the metamodel, string values looking like such a reference are reported
+ * as well. Attributes of the {@code xmlns}, {@code xmi}, and {@code xsi}
+ * namespaces are ignored.
+ * </p>
+ *
+ * <p>
+ * All methods are thread-safe.
+ * </p>
+ *
+ * @author Niko Stotz
+ *
+ * @since 0.2
+ *
+ */
+public class ProxyUriScanner {
+	private static final String HREF = "href";
+
+	private static final String XMI_NAMESPACE_URI = "http://www.omg.org/XMI";
+
+	private static final String XMI_NAMESPACE_URI_PREFIX = "http://www.omg.org/spec/XMI";
+
+	private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+
+	/**
+	 * Returns the URIs of all resources referenced from {@code input}.
+	 *
+	 * <p>
+	 * The result contains the referenced URIs without
+	 * {@linkplain URI#fragment() fragment}, in order of first occurrence.
+	 * Relative URIs are {@linkplain URI#resolve(URI) resolved} against
+	 * {@code baseUri}. References to {@code baseUri} itself are omitted.
+	 * </p>
+	 *
+	 * @param input
+	 *            The XMI or XML content to scan. This method does not close
+	 *            {@code input}.
+	 * @param baseUri
+	 *            The URI of the resource {@code input} belongs to.
+	 * @return The URIs of all resources referenced from {@code input}.
+	 *
+	 * @throws IOException
+	 *             If {@code input} cannot be read or is not well-formed XML.
+	 *
+	 * @since 0.2
+	 */
+	public static @NonNull Set<URI> scan(final @NonNull InputStream input, final @NonNull URI baseUri)
+			throws IOException {
+		URI base = baseUri.trimFragment();
+		Set<URI> result = new LinkedHashSet<>();
+
+		try {
+			XMLStreamReader reader = INPUT_FACTORY.createXMLStreamReader(input);
+			try {
+				while (reader.hasNext()) {
+					if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+						scanAttributes(reader, base, result);
+					}
+				}
+			} finally {
+				reader.close();
+			}
+		} catch (XMLStreamException e) {
+			throw new IOException("Cannot scan " + baseUri, e);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Same as {@link #scan(InputStream, URI)} for the contents of {@code file},
+	 * with its {@linkplain UriUtils#toUri(IResource) platform resource URI} as
+	 * base URI.
+	 *
+	 * @param file
+	 *            The XMI or XML file to scan.
+	 * @return The URIs of all resources referenced from {@code file}.
+	 *
+	 * @throws CoreException
+	 *             If {@code file} cannot be opened.
+	 * @throws IOException
+	 *             If {@code file} cannot be read or is not well-formed XML.
+	 *
+	 * @since 0.2
+	 */
+	public static @NonNull Set<URI> scan(final @NonNull IFile file) throws CoreException, IOException {
+		try (InputStream input = file.getContents(true)) {
+			return scan(input, UriUtils.toUri(file));
+		}
+	}
+
+	/**
+	 * Returns the file-level dependency graph of {@code files}.
+	 *
+	 * <p>
+	 * Every file is {@linkplain #scan(IFile) scanned}, and each referenced URI
+	 * is resolved like {@link UriUtils#toIResource(URI, URIConverter)}. The
+	 * files are scanned one after the other, so only one file is held in memory
+	 * at any time.
+	 * </p>
+	 *
+	 * @param files
+	 *            The XMI or XML files to scan.
+	 * @param uriConverter
+	 *            The URI converter to normalize referenced URIs with.
+	 * @return For each of {@code files}, in iteration order, the workspace
+	 *         resources it references. References that cannot be represented as
+	 *         IResource are omitted; references to missing files are included.
+	 *
+	 * @throws CoreException
+	 *             If any of {@code files} cannot be opened.
+	 * @throws IOException
+	 *             If any of {@code files} cannot be read or is not well-formed
+	 *             XML.
+	 *
+	 * @since 0.2
+	 */
+	public static @NonNull Map<IFile, Set<IResource>> scanDependencies(final @NonNull Collection<IFile> files,
+			final @NonNull URIConverter uriConverter) throws CoreException, IOException {
+		Map<IFile, Set<IResource>> result = new LinkedHashMap<>();
+
+		for (IFile file : files) {
+			Set<IResource> dependencies = new LinkedHashSet<>();
+			for (URI uri : scan(file)) {
+				IResource dependency = UriUtils.toIResource(uri, uriConverter);
+				if (dependency != null) {
+					dependencies.add(dependency);
+				}
+			}
+			result.put(file, dependencies);
+		}
+
+		return result;
+	}
+
+	private static void scanAttributes(final @NonNull XMLStreamReader reader, final @NonNull URI base,
+			final @NonNull Set<URI> result) {
+		for (int i = 0, count = reader.getAttributeCount(); i < count; i++) {
+			if (isMetaAttribute(reader.getAttributeNamespace(i))) {
+				continue;
+			}
+
+			String value = reader.getAttributeValue(i);
+			if (HREF.equals(reader.getAttributeLocalName(i))) {
+				addReference(value.trim(), base, result);
+			} else if (value.indexOf('#') > 0) {
+				for (String token : value.split("\\s+")) {
+					if (token.indexOf('#') > 0) {
+						addReference(token, base, result);
+					}
+				}
+			}
+		}
+	}
+
+	private static boolean isMetaAttribute(final @Nullable String namespace) {
+		return namespace != null && (XMLConstants.XMLNS_ATTRIBUTE_NS_URI.equals(namespace)
+				|| XMLConstants.W3C_XML_SCHEMA_INSTANCE_NS_URI.equals(namespace)
+				|| XMI_NAMESPACE_URI.equals(namespace) || namespace.startsWith(XMI_NAMESPACE_URI_PREFIX));
+	}
+
+	private static void addReference(final @NonNull String value, final @NonNull URI base,
+			final @NonNull Set<URI> result) {
+		if (value.isEmpty() || value.charAt(0) == '#') {
+			// Same document
+			return;
+		}
+
+		URI uri;
+		try {
+			uri = URI.createURI(value).trimFragment();
+		} catch (IllegalArgumentException e) {
+			// Not a URI, e.g. a string value looking like one
+			return;
+		}
+
+		if (uri.isRelative() && base.isHierarchical() && !base.isRelative()) {
+			uri = uri.resolve(base);
+		}
+		if (!uri.equals(base)) {
+			result.add(uri);
+		}
+	}
+
+	private static @NonNull XMLInputFactory createInputFactory() {
+		XMLInputFactory result = XMLInputFactory.newFactory();
+		// Never resolve anything outside of the scanned file
+		result.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+		result.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+		return result;
+	}
+}
@@ -0,0 +1,317 @@
+package org.eclipse.commons.emf;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+
+import org.eclipse.core.resources.IResource;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.osgi.service.debug.DebugOptions;
+import org.eclipse.osgi.service.debug.DebugOptionsListener;
+import org.eclipse.osgi.service.debug.DebugTrace;
+
+/**
+ * Collects {@link ResolutionStatisticsMBean statistics} and traces
+ * resolutions.
+ *
+ * <p>
+ * Resolution code calls {@link #start()} and passes its result to one of the
+ * {@code record*()} methods. While neither statistics nor tracing are enabled,
+ * {@link #start()} reads one flag and returns {@link #DISABLED}, and the
+ * {@code record*()} methods return right away. All counters are
+ * {@link LongAdder}s, so parallel resolution does not contend on them.
+ * </p>
+ *
+ * <p>
+ * While this bundle is active, the {@link Activator} registers the statistics
+ * with the platform MBean server, and as {@link DebugOptionsListener}. Thus,
+ * changing the debug options at runtime starts or stops collecting and
+ * tracing. Traces go to the {@link DebugTrace} of this bundle.
+ * </p>
+ *
+ * @author Niko Stotz
+ *
+ */
+final class ResolutionStatistics implements ResolutionStatisticsMBean, DebugOptionsListener {
+	/** Returned by {@link #start()} while disabled. */
+	static final long DISABLED = Long.MIN_VALUE;
+
+	private static final String OPTION_DEBUG = Activator.BUNDLE_ID + "/debug";
+
+	private static final String OPTION_STATISTICS = OPTION_DEBUG + "/statistics";
+
+	private static final String TRACE_RESOLUTION = "/debug/resolution";
+
+	private static final String OPTION_RESOLUTION = Activator.BUNDLE_ID + TRACE_RESOLUTION;
+
+	private static final int BUCKETS = 40;
+
+	private static final ResolutionStatistics INSTANCE = new ResolutionStatistics();
+
+	/** Whether enabled by the MBean or by the debug options */
+	private static volatile boolean enabled = false;
+
+	/** Guarded by {@code ResolutionStatistics.class} */
+	private static boolean enabledByMBean = false;
+
+	/** Guarded by {@code ResolutionStatistics.class} */
+	private static boolean enabledByOptions = false;
+
+	/** {@code null} unless tracing */
+	private static volatile DebugTrace trace = null;
+
+	private final LongAdder existingFiles = new LongAdder();
+
+	private final LongAdder existingFolders = new LongAdder();
+
+	private final LongAdder existingProjects = new LongAdder();
+
+	private final LongAdder workspaceRoots = new LongAdder();
+
+	private final LongAdder missingFiles = new LongAdder();
+
+	private final LongAdder nonPlatform = new LongAdder();
+
+	private final LongAdder cacheHits = new LongAdder();
+
+	private final LongAdder cacheMisses = new LongAdder();
+
+	private final LongAdder[] latencies = new LongAdder[BUCKETS];
+
+	/** Whether this instance registered the MBean */
+	private boolean registered = false;
+
+	private ResolutionStatistics() {
+		for (int i = 0; i < BUCKETS; i++) {
+			latencies[i] = new LongAdder();
+		}
+	}
+
+	static @NonNull ResolutionStatistics getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Registers the statistics with the platform MBean server as
+	 * {@value #OBJECT_NAME}.
+	 */
+	synchronized void registerMBean() {
+		if (registered) {
+			return;
+		}
+
+		try {
+			ManagementFactory.getPlatformMBeanServer().registerMBean(
+					new StandardMBean(this, ResolutionStatisticsMBean.class), new ObjectName(OBJECT_NAME));
+			registered = true;
+		} catch (JMException | SecurityException e) {
+			// Still available in-process, e.g. if another bundle version registered first
+		}
+	}
+
+	/**
+	 * Unregisters the statistics from the platform MBean server, if
+	 * {@linkplain #registerMBean() registered} by this instance.
+	 */
+	synchronized void unregisterMBean() {
+		if (!registered) {
+			return;
+		}
+
+		registered = false;
+		try {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(new ObjectName(OBJECT_NAME));
+		} catch (JMException | SecurityException e) {
+			// Unregistered by someone else meanwhile
+		}
+	}
+
+	@Override
+	public void optionsChanged(final DebugOptions options) {
+		boolean debug = options.getBooleanOption(OPTION_DEBUG, false);
+		boolean tracing = debug && options.getBooleanOption(OPTION_RESOLUTION, false);
+
+		trace = tracing ? options.newDebugTrace(Activator.BUNDLE_ID, ResolutionStatistics.class) : null;
+		synchronized (ResolutionStatistics.class) {
+			enabledByOptions = tracing || (debug && options.getBooleanOption(OPTION_STATISTICS, false));
+			enabled = enabledByMBean || enabledByOptions;
+		}
+	}
+
+	/**
+	 * Returns the start time of a resolution, or {@link #DISABLED}.
+	 */
+	static long start() {
+		return enabled ? System.nanoTime() : DISABLED;
+	}
+
+	/**
+	 * Records a resolution resulting in {@code resource}, which exists if
+	 * {@code existing}.
+	 */
+	static void recordResource(final long start, final @NonNull URI uri, final @NonNull IResource resource,
+			final boolean existing) {
+		if (start == DISABLED) {
+			return;
+		}
+
+		LongAdder counter;
+		if (!existing) {
+			counter = INSTANCE.missingFiles;
+		} else {
+			switch (resource.getType()) {
+			case IResource.FILE:
+				counter = INSTANCE.existingFiles;
+				break;
+			case IResource.FOLDER:
+				counter = INSTANCE.existingFolders;
+				break;
+			case IResource.PROJECT:
+				counter = INSTANCE.existingProjects;
+				break;
+			default:
+				counter = INSTANCE.workspaceRoots;
+				break;
+			}
+		}
+		INSTANCE.record(start, counter, uri, resource);
+	}
+
+	/**
+	 * Records a resolution resulting in {@code null}.
+	 */
+	static void recordNonPlatform(final long start, final @NonNull URI uri) {
+		if (start == DISABLED) {
+			return;
+		}
+
+		INSTANCE.record(start, INSTANCE.nonPlatform, uri, null);
+	}
+
+	static void recordCacheHit() {
+		if (enabled) {
+			INSTANCE.cacheHits.increment();
+		}
+	}
+
+	static void recordCacheMiss() {
+		if (enabled) {
+			INSTANCE.cacheMisses.increment();
+		}
+	}
+
+	private void record(final long start, final @NonNull LongAdder counter, final @NonNull URI uri,
+			final @Nullable IResource result) {
+		long elapsed = System.nanoTime() - start;
+		counter.increment();
+		latencies[Math.min(Math.max(63 - Long.numberOfLeadingZeros(elapsed), 0), BUCKETS - 1)].increment();
+
+		DebugTrace current = trace;
+		if (current != null) {
+			String outcome;
+			if (result == null) {
+				outcome = "null";
+			} else if (counter == missingFiles) {
+				outcome = result.getFullPath() + " (missing)";
+			} else {
+				outcome = result.getFullPath() + " (existing)";
+			}
+			current.trace(TRACE_RESOLUTION, uri + " -> " + outcome + " in " + elapsed + " ns");
+		}
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	@Override
+	public void setEnabled(final boolean enabled) {
+		synchronized (ResolutionStatistics.class) {
+			enabledByMBean = enabled;
+			ResolutionStatistics.enabled = enabledByMBean || enabledByOptions;
+		}
+	}
+
+	@Override
+	public void reset() {
+		existingFiles.reset();
+		existingFolders.reset();
+		existingProjects.reset();
+		workspaceRoots.reset();
+		missingFiles.reset();
+		nonPlatform.reset();
+		cacheHits.reset();
+		cacheMisses.reset();
+		for (LongAdder latency : latencies) {
+			latency.reset();
+		}
+	}
+
+	@Override
+	public long getCalls() {
+		return getExistingFiles() + getExistingFolders() + getExistingProjects() + getWorkspaceRoots()
+				+ getMissingFiles() + getNonPlatform();
+	}
+
+	@Override
+	public long getExistingFiles() {
+		return existingFiles.sum();
+	}
+
+	@Override
+	public long getExistingFolders() {
+		return existingFolders.sum();
+	}
+
+	@Override
+	public long getExistingProjects() {
+		return existingProjects.sum();
+	}
+
+	@Override
+	public long getWorkspaceRoots() {
+		return workspaceRoots.sum();
+	}
+
+	@Override
+	public long getMissingFiles() {
+		return missingFiles.sum();
+	}
+
+	@Override
+	public long getNonPlatform() {
+		return nonPlatform.sum();
+	}
+
+	@Override
+	public long getCacheHits() {
+		return cacheHits.sum();
+	}
+
+	@Override
+	public long getCacheMisses() {
+		return cacheMisses.sum();
+	}
+
+	@Override
+	public double getCacheHitRate() {
+		long hits = getCacheHits();
+		long total = hits + getCacheMisses();
+		return total > 0 ? (double) hits / total : Double.NaN;
+	}
+
+	@Override
+	public long[] getLatencyHistogram() {
+		long[] result = new long[BUCKETS];
+		for (int i = 0; i < BUCKETS; i++) {
+			result[i] = latencies[i].sum();
+		}
+		return result;
+	}
+}
@@ -0,0 +1,165 @@
+package org.eclipse.commons.emf;
+
+/**
+ * Statistics of {@link UriUtils#toIResource(org.eclipse.emf.common.util.URI)}
+ * and {@link CachingUriResolver}.
+ *
+ * <p>
+ * While this bundle is active, the statistics are registered with the
+ * platform MBean server as {@value #OBJECT_NAME}. They are always available
+ * in-process through {@link UriUtils#getStatistics()}. Collecting is disabled
+ * by default; enable it with {@link #setEnabled(boolean)} or the debug option
+ * {@code org.eclipse.commons.emf/debug/statistics}. While disabled, resolution
+ * pays only for reading one flag.
+ * </p>
+ *
+ * @author Niko Stotz
+ *
+ * @since 0.2
+ *
+ */
+public interface ResolutionStatisticsMBean {
+	/**
+	 * Name of the MBean.
+	 *
+	 * @since 0.2
+	 */
+	String OBJECT_NAME = "org.eclipse.commons.emf:type=ResolutionStatistics";
+
+	/**
+	 * Returns whether statistics are collected.
+	 *
+	 * @return Whether statistics are collected.
+	 *
+	 * @since 0.2
+	 */
+	boolean isEnabled();
+
+	/**
+	 * Starts or stops collecting statistics. The collected values are kept.
+	 * Statistics enabled by the debug options are collected regardless.
+	 *
+	 * @param enabled
+	 *            Whether to collect statistics.
+	 *
+	 * @since 0.2
+	 */
+	void setEnabled(boolean enabled);
+
+	/**
+	 * Resets all collected values to zero.
+	 *
+	 * @since 0.2
+	 */
+	void reset();
+
+	/**
+	 * Returns the number of resolutions.
+	 *
+	 * @return Number of resolutions.
+	 *
+	 * @since 0.2
+	 */
+	long getCalls();
+
+	/**
+	 * Returns the number of resolutions resulting in an existing IFile.
+	 *
+	 * @return Number of resolutions resulting in an existing IFile.
+	 *
+	 * @since 0.2
+	 */
+	long getExistingFiles();
+
+	/**
+	 * Returns the number of resolutions resulting in an existing IFolder.
+	 *
+	 * @return Number of resolutions resulting in an existing IFolder.
+	 *
+	 * @since 0.2
+	 */
+	long getExistingFolders();
+
+	/**
+	 * Returns the number of resolutions resulting in an existing IProject.
+	 *
+	 * @return Number of resolutions resulting in an existing IProject.
+	 *
+	 * @since 0.2
+	 */
+	long getExistingProjects();
+
+	/**
+	 * Returns the number of resolutions resulting in the IWorkspaceRoot.
+	 *
+	 * @return Number of resolutions resulting in the IWorkspaceRoot.
+	 *
+	 * @since 0.2
+	 */
+	long getWorkspaceRoots();
+
+	/**
+	 * Returns the number of resolutions resulting in a handle of a missing
+	 * IFile.
+	 *
+	 * @return Number of resolutions resulting in a missing IFile.
+	 *
+	 * @since 0.2
+	 */
+	long getMissingFiles();
+
+	/**
+	 * Returns the number of resolutions resulting in {@code null}, i.e. of
+	 * non-platform URIs.
+	 *
+	 * @return Number of resolutions resulting in {@code null}.
+	 *
+	 * @since 0.2
+	 */
+	long getNonPlatform();
+
+	/**
+	 * Returns the number of lookups answered by a {@link CachingUriResolver}
+	 * cache.
+	 *
+	 * @return Number of cache hits.
+	 *
+	 * @since 0.2
+	 */
+	long getCacheHits();
+
+	/**
+	 * Returns the number of lookups a {@link CachingUriResolver} had to resolve.
+	 *
+	 * @return Number of cache misses.
+	 *
+	 * @since 0.2
+	 */
+	long getCacheMisses();
+
+	/**
+	 * Returns the ratio of cache hits to all cache lookups.
+	 *
+	 * @return Cache hit rate between 0 and 1, or {@code NaN} without any
+	 *         lookup.
+	 *
+	 * @since 0.2
+	 */
+	double getCacheHitRate();
+
+	/**
+	 * Returns the latency histogram of resolutions.
+	 *
+	 * <p>
+	 * Element {@code i} counts the resolutions that took between
+	 * 2<sup>i</sup> (inclusive) and 2<sup>i+1</sup> (exclusive) nanoseconds;
+	 * element 0 also counts resolutions below one nanosecond. The last element
+	 * also counts all longer resolutions.
+	 * </p>
+	 *
+	 * @return Latency histogram of resolutions.
+	 *
+	 * @since 0.2
+	 */
+	long[] getLatencyHistogram();
+}
@@ -0,0 +1,158 @@
+package org.eclipse.commons.emf;
+
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.InternalEObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.URIConverter;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Utilities for resolving the contents of
+ * {@linkplain org.eclipse.emf.ecore.resource.ResourceSet ResourceSets} to
+ * {@linkplain org.eclipse.core.resources.IResource Eclipse IResources}.
+ *
+ * <p>
+ * All methods process the resources of the resource set as a parallel stream
+ * on the {@linkplain java.util.concurrent.ForkJoinPool#commonPool() common
+ * pool}, or the fork-join pool the caller runs in. The resource set must not
+ * be modified concurrently. The methods never load resources or resolve
+ * proxies.
+ * </p>
+ *
+ * @author Niko Stotz
+ *
+ * @since 0.2
+ *
+ */
+public class ResourceSetUtils {
+	/**
+	 * Returns the {@linkplain org.eclipse.core.resources.IResource Eclipse
+	 * IResource} of every {@linkplain Resource#getURI() resource URI} in
+	 * {@code resourceSet}, grouped by project.
+	 *
+	 * <p>
+	 * Each URI is resolved like
+	 * {@link UriUtils#toIResource(URI, URIConverter)}, using the
+	 * {@linkplain ResourceSet#getURIConverter() URI converter} of
+	 * {@code resourceSet}. Resources that cannot be represented as IResource
+	 * inside a project are omitted.
+	 * </p>
+	 *
+	 * @param resourceSet
+	 *            The resource set to resolve the resources of.
+	 * @return For each project, the resources of {@code resourceSet} inside this
+	 *         project and their Eclipse IResource.
+	 *
+	 * @throws IllegalArgumentException
+	 *             If any resource URI is seriously ill-formatted.
+	 *
+	 * @since 0.2
+	 */
+	public static @NonNull Map<IProject, Map<Resource, IResource>> toIResources(
+			final @NonNull ResourceSet resourceSet) {
+		URIConverter uriConverter = prepareUriConverter(resourceSet);
+
+		return snapshotResources(resourceSet).parallelStream()
+				.map(resource -> toEntry(resource, resource.getURI(), uriConverter))
+				.filter(Objects::nonNull)
+				.collect(Collectors.groupingBy(entry -> entry.getValue().getProject(),
+						Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue)));
+	}
+
+	/**
+	 * Returns the {@linkplain org.eclipse.core.resources.IResource Eclipse
+	 * IResource} of every {@linkplain EObject#eIsProxy() proxy} URI referenced
+	 * from the contents of {@code resourceSet}, grouped by project.
+	 *
+	 * <p>
+	 * The proxies are found with {@link EcoreUtil.ProxyCrossReferencer}, so they
+	 * stay unresolved. The result is keyed by the proxy URIs without
+	 * {@linkplain URI#fragment() fragment}, i.e. the URIs of the referenced
+	 * resources. Relative proxy URIs are resolved against the URI of the
+	 * referencing resource. Each distinct URI is resolved once like
+	 * {@link UriUtils#toIResource(URI, URIConverter)}, using the
+	 * {@linkplain ResourceSet#getURIConverter() URI converter} of
+	 * {@code resourceSet}. URIs that cannot be represented as IResource inside a
+	 * project are omitted.
+	 * </p>
+	 *
+	 * @param resourceSet
+	 *            The resource set to scan for proxies.
+	 * @return For each project, the referenced resource URIs inside this project
+	 *         and their Eclipse IResource.
+	 *
+	 * @throws IllegalArgumentException
+	 *             If any proxy URI is seriously ill-formatted.
+	 *
+	 * @since 0.2
+	 */
+	public static @NonNull Map<IProject, Map<URI, IResource>> toProxyIResources(
+			final @NonNull ResourceSet resourceSet) {
+		URIConverter uriConverter = prepareUriConverter(resourceSet);
+
+		Set<URI> proxyUris = snapshotResources(resourceSet).parallelStream()
+				.flatMap(resource -> EcoreUtil.ProxyCrossReferencer.find(resource).keySet().stream()
+						.map(proxy -> toResourceUri(proxy, resource)))
+				.filter(Objects::nonNull)
+				.collect(Collectors.toSet());
+
+		return proxyUris.parallelStream()
+				.map(uri -> toEntry(uri, uri, uriConverter))
+				.filter(Objects::nonNull)
+				.collect(Collectors.groupingBy(entry -> entry.getValue().getProject(),
+						Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue)));
+	}
+
+	private static @NonNull URIConverter prepareUriConverter(final @NonNull ResourceSet resourceSet) {
+		URIConverter result = resourceSet.getURIConverter();
+		// The URI map is created lazily; make sure no worker races to create it
+		result.getURIMap();
+		return result;
+	}
+
+	private static @NonNull List<Resource> snapshotResources(final @NonNull ResourceSet resourceSet) {
+		// EList offers no spliterator suitable for splitting
+		return new ArrayList<>(resourceSet.getResources());
+	}
+
+	private static <K> Map.@Nullable Entry<K, IResource> toEntry(final @NonNull K key, final @Nullable URI uri,
+			final @NonNull URIConverter uriConverter) {
+		if (uri == null) {
+			return null;
+		}
+
+		IResource iResource = UriUtils.toIResource(uri, uriConverter);
+		if (iResource == null || iResource.getProject() == null) {
+			return null;
+		}
+
+		return new SimpleImmutableEntry<>(key, iResource);
+	}
+
+	private static @Nullable URI toResourceUri(final @NonNull EObject proxy, final @NonNull Resource resource) {
+		URI proxyUri = ((InternalEObject) proxy).eProxyURI();
+		if (proxyUri == null) {
+			return null;
+		}
+
+		URI result = proxyUri.trimFragment();
+		if (result.isRelative() && resource.getURI() != null) {
+			result = result.resolve(resource.getURI());
+		}
+		return result;
+	}
+}
@@ -0,0 +1,189 @@
+package org.eclipse.commons.emf;
+
+import org.eclipse.core.resources.IContainer;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Snapshot of the existence and type of all resources inside a container.
+ *
+ * <p>
+ * The snapshot is taken with one
+ * {@linkplain IResource#accept(org.eclipse.core.resources.IResourceProxyVisitor, int)
+ * proxy visitor} pass over the container. Afterwards, {@link #toIResource(URI)}
+ * and {@link #getType(IPath)} answer for any path inside the container without
+ * touching the workspace tree. This suits validating all files of a project:
+ * Instead of one tree lookup per file for {@link UriUtils#toIResource(URI)},
+ * {@link IResource#exists()}, and {@link IResource#getType()}, the whole
+ * project takes one traversal.
+ * </p>
+ *
+ * <p>
+ * The snapshot does not follow later workspace changes. Paths outside the
+ * container are answered from the workspace, like
+ * {@link UriUtils#toIResource(URI)}.
+ * </p>
+ *
+ * <p>
+ * Instances are immutable and thus thread-safe.
+ * </p>
+ *
+ * @author Niko Stotz
+ *
+ * @since 0.2
+ *
+ */
+public final class ResourceSnapshot implements PathResolver {
+	private static final int MEMBER_FLAGS = IContainer.INCLUDE_HIDDEN | IContainer.INCLUDE_TEAM_PRIVATE_MEMBERS;
+
+	private final @NonNull IContainer container;
+
+	private final @NonNull IPath containerPath;
+
+	// Byte values are cached, so entries only cost their trie node
+	private final @NonNull PathTrie<Byte> types;
+
+	private ResourceSnapshot(final @NonNull IContainer container, final @NonNull PathTrie<Byte> types) {
+		this.container = container;
+		this.containerPath = container.getFullPath();
+		this.types = types;
+	}
+
+	/**
+	 * Takes a snapshot of {@code container} and all its members, recursively.
+	 *
+	 * <p>
+	 * Like {@link UriUtils#toIResource(URI)}, the snapshot includes hidden and
+	 * team private members. Members of closed projects are not accessible, and
+	 * therefore missing. This includes {@code container} itself being a closed
+	 * project: The snapshot then contains only the project.
+	 * </p>
+	 *
+	 * @param container
+	 *            The project, folder, or workspace root to take the snapshot
+	 *            of.
+	 * @return The snapshot of {@code container}. If {@code container} does not
+	 *         exist, all paths inside it are missing.
+	 *
+	 * @throws CoreException
+	 *             If traversing {@code container} fails.
+	 *
+	 * @since 0.2
+	 */
+	public static @NonNull ResourceSnapshot of(final @NonNull IContainer container) throws CoreException {
+		PathTrie<Byte> types = new PathTrie<>();
+		if (container.getType() == IResource.PROJECT && container.exists() && !container.isAccessible()) {
+			// accept() fails for closed projects
+			types.put(container.getFullPath(), Byte.valueOf((byte) IResource.PROJECT));
+		} else if (container.exists()) {
+			container.accept(proxy -> {
+				types.put(proxy.requestFullPath(), Byte.valueOf((byte) proxy.getType()));
+				return true;
+			}, MEMBER_FLAGS);
+		}
+		return new ResourceSnapshot(container, types);
+	}
+
+	/**
+	 * Returns the container this snapshot was taken of.
+	 *
+	 * @return The container of this snapshot.
+	 *
+	 * @since 0.2
+	 */
+	public @NonNull IContainer getContainer() {
+		return container;
+	}
+
+	/**
+	 * Returns the number of existing resources in this snapshot, including the
+	 * container.
+	 *
+	 * @return Number of existing resources.
+	 *
+	 * @since 0.2
+	 */
+	public int size() {
+		return types.size();
+	}
+
+	/**
+	 * Returns whether this snapshot answers for {@code path}, i.e. whether
+	 * {@code path} denotes the container or a path inside it.
+	 *
+	 * @param path
+	 *            The absolute workspace path to check.
+	 * @return {@code true} if {@code path} is inside the container.
+	 *
+	 * @since 0.2
+	 */
+	public boolean covers(final @NonNull IPath path) {
+		return containerPath.isPrefixOf(path);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>
+	 * Paths {@linkplain #covers(IPath) covered} by this snapshot are answered
+	 * from the snapshot; all others from the workspace.
+	 * </p>
+	 *
+	 * @since 0.2
+	 */
+	@Override
+	public int getType(final @NonNull IPath path) {
+		if (!covers(path)) {
+			return PathResolver.WORKSPACE.getType(path);
+		}
+
+		Byte type = types.get(path);
+		return type != null ? type.intValue() : IResource.NONE;
+	}
+
+	/**
+	 * Returns the equivalent {@linkplain org.eclipse.core.resources.IResource
+	 * Eclipse IResource} for an {@linkplain org.eclipse.emf.common.util.URI Ecore
+	 * URI}, if available.
+	 *
+	 * <p>
+	 * The result is the same as of {@link UriUtils#toIResource(URI)} at the time
+	 * the snapshot was taken, provided {@code uri} is
+	 * {@linkplain #covers(IPath) covered} by this snapshot. Otherwise, the result
+	 * is the current one of {@link UriUtils#toIResource(URI)}.
+	 * </p>
+	 *
+	 * @param uri
+	 *            The Ecore URI to return as Eclipse IResource.
+	 * @return {@code uri} as Eclipse IResource, if available; {@code null}
+	 *         otherwise.
+	 *
+	 * @throws IllegalArgumentException
+	 *             If {@code uri} is seriously ill-formatted.
+	 *
+	 * @since 0.2
+	 */
+	public @Nullable IResource toIResource(final @NonNull URI uri) {
+		IPath path = UriUtils.toPath(uri);
+		if (path == null || !covers(path)) {
+			return UriUtils.toIResource(uri);
+		}
+
+		IWorkspaceRoot root = container.getWorkspace().getRoot();
+		switch (getType(path)) {
+		case IResource.ROOT:
+			return root;
+		case IResource.PROJECT:
+			return root.getProject(path.segment(0));
+		case IResource.FOLDER:
+			return root.getFolder(path);
+		default:
+			return root.getFile(path);
+		}
+	}
+}
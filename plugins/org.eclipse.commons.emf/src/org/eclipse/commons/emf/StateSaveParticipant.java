@@ -0,0 +1,181 @@
+package org.eclipse.commons.emf;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.eclipse.core.resources.ISaveContext;
+import org.eclipse.core.resources.ISaveParticipant;
+import org.eclipse.core.resources.ISavedState;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.FrameworkUtil;
+
+/**
+ * Persists state of this bundle across sessions.
+ *
+ * <p>
+ * The workspace allows only one save participant per bundle, so this
+ * participant serves all {@link Persistable}s. On every full workspace save,
+ * each enabled persistable is written to its own file in the state location of
+ * this bundle. On {@linkplain #enable(Persistable) enabling}, the persistable
+ * of the last session is restored. Missing or corrupt files are ignored.
+ * </p>
+ *
+ * <p>
+ * The workspace compares the saved state to the workspace state at
+ * registration of the participant. Thus, only persistables enabled together
+ * with the registration get the saved-state delta.
+ * </p>
+ *
+ * @author Niko Stotz
+ *
+ */
+final class StateSaveParticipant implements ISaveParticipant {
+	/**
+	 * State to persist across sessions.
+	 */
+	interface Persistable {
+		/**
+		 * @return Name of the state; used as saved state key and file prefix.
+		 */
+		@NonNull String getName();
+
+		/**
+		 * Writes the state to {@code file}.
+		 *
+		 * @return Whether anything was written.
+		 */
+		boolean save(@NonNull File file) throws IOException;
+
+		/**
+		 * Restores the state from {@code file}. {@code savedState} provides the
+		 * workspace changes since {@code file} was written, or is {@code null}
+		 * if the changes are not available.
+		 */
+		void restore(@NonNull File file, @Nullable ISavedState savedState) throws IOException;
+	}
+
+	private static final StateSaveParticipant INSTANCE = new StateSaveParticipant();
+
+	private final List<Persistable> persistables = new CopyOnWriteArrayList<>();
+
+	private boolean registered = false;
+
+	private ISavedState savedState = null;
+
+	private StateSaveParticipant() {
+	}
+
+	/**
+	 * Registers the save participant, if not done yet, and restores
+	 * {@code persistable} from the last session, if available. Subsequent calls
+	 * for the same persistable have no effect.
+	 */
+	static void enable(final @NonNull Persistable persistable) throws CoreException {
+		boolean registering;
+		ISavedState current;
+		// Never acquired by save callbacks, so it may be held while
+		// registering acquires the workspace lock
+		synchronized (INSTANCE) {
+			if (INSTANCE.persistables.contains(persistable)) {
+				return;
+			}
+
+			registering = !INSTANCE.registered;
+			if (registering) {
+				INSTANCE.savedState = ResourcesPlugin.getWorkspace().addSaveParticipant(Activator.BUNDLE_ID, INSTANCE);
+				INSTANCE.registered = true;
+			}
+			INSTANCE.persistables.add(persistable);
+			current = INSTANCE.savedState;
+		}
+
+		// Not holding the monitor: restoring may take long and acquire the
+		// workspace lock
+		IPath fileName = current != null ? current.lookup(getKey(persistable)) : null;
+		if (fileName != null) {
+			try {
+				persistable.restore(getFile(fileName.toString()), registering ? current : null);
+			} catch (IOException e) {
+				// Built on first use instead
+			}
+		}
+	}
+
+	@Override
+	public void prepareToSave(final ISaveContext context) throws CoreException {
+		// Nothing to prepare
+	}
+
+	@Override
+	public void saving(final ISaveContext context) throws CoreException {
+		if (context.getKind() != ISaveContext.FULL_SAVE) {
+			return;
+		}
+
+		for (Persistable persistable : persistables) {
+			String fileName = getFileName(persistable, context.getSaveNumber());
+			File file = getFile(fileName);
+			try {
+				if (persistable.save(file)) {
+					context.map(getKey(persistable), new Path(fileName));
+					context.needSaveNumber();
+					context.needDelta();
+				}
+			} catch (IOException e) {
+				// Not worth failing the workspace save; rebuilt on next start
+				file.delete();
+			}
+		}
+	}
+
+	@Override
+	public void doneSaving(final ISaveContext context) {
+		if (context.getKind() != ISaveContext.FULL_SAVE) {
+			return;
+		}
+
+		for (Persistable persistable : persistables) {
+			getFile(getFileName(persistable, context.getPreviousSaveNumber())).delete();
+		}
+	}
+
+	@Override
+	public void rollback(final ISaveContext context) {
+		if (context.getKind() != ISaveContext.FULL_SAVE) {
+			return;
+		}
+
+		for (Persistable persistable : persistables) {
+			getFile(getFileName(persistable, context.getSaveNumber())).delete();
+		}
+	}
+
+	private static @NonNull IPath getKey(final @NonNull Persistable persistable) {
+		return new Path(persistable.getName());
+	}
+
+	private static @NonNull String getFileName(final @NonNull Persistable persistable, final int saveNumber) {
+		return persistable.getName() + "-" + saveNumber;
+	}
+
+	private static @NonNull File getFile(final @NonNull String fileName) {
+		return Platform.getStateLocation(getBundle()).append(fileName).toFile();
+	}
+
+	private static @NonNull Bundle getBundle() {
+		Bundle result = FrameworkUtil.getBundle(StateSaveParticipant.class);
+		if (result == null) {
+			throw new IllegalStateException("Persistent state requires an OSGi runtime");
+		}
+		return result;
+	}
+}
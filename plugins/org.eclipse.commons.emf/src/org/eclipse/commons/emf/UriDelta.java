@@ -0,0 +1,363 @@
+package org.eclipse.commons.emf;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.jdt.annotation.NonNull;
+
+/**
+ * Workspace file changes, expressed as
+ * {@linkplain org.eclipse.emf.common.util.URI Ecore URIs}.
+ *
+ * <p>
+ * This is the reverse of {@link UriUtils#toIResource(URI)}: Every URI is the
+ * {@linkplain UriUtils#toUri(IResource) platform resource URI} of a changed
+ * file, i.e. the URI of the EMF resource to load, unload, or reload. Only
+ * files are reported; a change to a folder or project shows up as changes to
+ * the files inside it, as far as the resource delta contains them.
+ * </p>
+ *
+ * <p>
+ * Opening or closing a project is the exception, as the resource delta lists
+ * no files then. The files of an opened project are reported as added. The
+ * files of a closed project cannot be listed anymore, so
+ * {@link #getRemoved()} contains the URI of the project instead, standing for
+ * all files inside it.
+ * </p>
+ *
+ * <p>
+ * Each URI appears in at most one of {@link #getAdded()},
+ * {@link #getRemoved()}, and the keys or values of {@link #getMoved()}.
+ * {@link #getChanged()} never contains added files, but may contain move
+ * targets whose content changed as well. Instances are immutable.
+ * </p>
+ *
+ * @author Niko Stotz
+ *
+ * @see UriDeltaCollector
+ *
+ * @since 0.2
+ *
+ */
+public final class UriDelta {
+	private static final int CHANGES = IResourceDelta.CONTENT | IResourceDelta.ENCODING | IResourceDelta.REPLACED
+			| IResourceDelta.TYPE;
+
+	private final @NonNull Set<URI> added;
+	private final @NonNull Set<URI> removed;
+	private final @NonNull Set<URI> changed;
+	private final @NonNull Map<URI, URI> moved;
+
+	private UriDelta(final @NonNull Builder builder) {
+		this.added = unmodifiableCopy(builder.added);
+		this.removed = unmodifiableCopy(builder.removed);
+		this.changed = unmodifiableCopy(builder.changed);
+
+		Map<URI, URI> movedFromTo = new LinkedHashMap<>();
+		builder.movedToFrom.forEach((to, from) -> movedFromTo.put(from, to));
+		this.moved = Collections.unmodifiableMap(movedFromTo);
+	}
+
+	/**
+	 * Converts all file changes contained in {@code delta}.
+	 *
+	 * @param delta
+	 *            The resource delta to convert.
+	 * @return The file changes in {@code delta}.
+	 *
+	 * @since 0.2
+	 */
+	public static @NonNull UriDelta of(final @NonNull IResourceDelta delta) {
+		Builder builder = new Builder();
+		builder.add(delta);
+		return builder.build();
+	}
+
+	/**
+	 * Returns the URIs of added files.
+	 *
+	 * @return URIs of added files, excluding move targets.
+	 *
+	 * @since 0.2
+	 */
+	public @NonNull Set<URI> getAdded() {
+		return added;
+	}
+
+	/**
+	 * Returns the URIs of removed files.
+	 *
+	 * @return URIs of removed files, excluding move sources; URIs of closed
+	 *         projects.
+	 *
+	 * @since 0.2
+	 */
+	public @NonNull Set<URI> getRemoved() {
+		return removed;
+	}
+
+	/**
+	 * Returns the URIs of files whose content, encoding, or type changed, or
+	 * which were replaced.
+	 *
+	 * @return URIs of changed files.
+	 *
+	 * @since 0.2
+	 */
+	public @NonNull Set<URI> getChanged() {
+		return changed;
+	}
+
+	/**
+	 * Returns the moved files.
+	 *
+	 * @return Map from the URI of the moved file before the move to its URI
+	 *         after the move.
+	 *
+	 * @since 0.2
+	 */
+	public @NonNull Map<URI, URI> getMoved() {
+		return moved;
+	}
+
+	/**
+	 * Returns whether no file changed at all.
+	 *
+	 * @return {@code true} if all URI sets are empty.
+	 *
+	 * @since 0.2
+	 */
+	public boolean isEmpty() {
+		return added.isEmpty() && removed.isEmpty() && changed.isEmpty() && moved.isEmpty();
+	}
+
+	@Override
+	public String toString() {
+		return "UriDelta [added=" + added + ", removed=" + removed + ", changed=" + changed + ", moved=" + moved
+				+ "]";
+	}
+
+	private static @NonNull Set<URI> unmodifiableCopy(final @NonNull Set<URI> set) {
+		return Collections.unmodifiableSet(new LinkedHashSet<>(set));
+	}
+
+	/**
+	 * Accumulates several resource deltas, coalescing subsequent changes of
+	 * the same file.
+	 *
+	 * <p>
+	 * Not thread-safe.
+	 * </p>
+	 */
+	static final class Builder {
+		private final Set<URI> added = new LinkedHashSet<>();
+		private final Set<URI> removed = new LinkedHashSet<>();
+		private final Set<URI> changed = new LinkedHashSet<>();
+		// keyed by target, so subsequent moves of the same file can be chained
+		private final Map<URI, URI> movedToFrom = new LinkedHashMap<>();
+		// reverse of movedToFrom, to find moves whose source is occupied again
+		private final Map<URI, URI> movedFromTo = new HashMap<>();
+
+		void add(final @NonNull IResourceDelta delta) {
+			try {
+				delta.accept(this::visit);
+			} catch (CoreException e) {
+				// our visitor only visits accessible projects
+				throw new IllegalStateException(e);
+			}
+		}
+
+		boolean isEmpty() {
+			return added.isEmpty() && removed.isEmpty() && changed.isEmpty() && movedToFrom.isEmpty();
+		}
+
+		@NonNull UriDelta build() {
+			return new UriDelta(this);
+		}
+
+		void clear() {
+			added.clear();
+			removed.clear();
+			changed.clear();
+			movedToFrom.clear();
+			movedFromTo.clear();
+		}
+
+		private boolean visit(final @NonNull IResourceDelta delta) throws CoreException {
+			IResource resource = delta.getResource();
+			if (resource.getType() == IResource.PROJECT && delta.getKind() == IResourceDelta.CHANGED
+					&& (delta.getFlags() & IResourceDelta.OPEN) != 0) {
+				IProject project = (IProject) resource;
+				if (project.isOpen()) {
+					opened(project);
+				} else {
+					closed(toUri(delta.getFullPath()));
+				}
+				// the delta has no children
+				return false;
+			}
+
+			if (resource.getType() != IResource.FILE) {
+				return true;
+			}
+
+			URI uri = toUri(delta.getFullPath());
+			int flags = delta.getFlags();
+			switch (delta.getKind()) {
+			case IResourceDelta.ADDED:
+				IPath movedFrom = delta.getMovedFromPath();
+				if ((flags & IResourceDelta.MOVED_FROM) != 0 && movedFrom != null) {
+					moved(toUri(movedFrom), uri);
+				} else {
+					added(uri);
+				}
+				break;
+			case IResourceDelta.REMOVED:
+				// the ADDED delta of the target records the move
+				if ((flags & IResourceDelta.MOVED_TO) == 0) {
+					removed(uri);
+				}
+				break;
+			case IResourceDelta.CHANGED:
+				if ((flags & CHANGES) != 0) {
+					changed(uri);
+				}
+				break;
+			default:
+				break;
+			}
+
+			return false;
+		}
+
+		private void added(final @NonNull URI uri) {
+			if (removed.remove(uri) || reoccupied(uri)) {
+				changed.add(uri);
+			} else {
+				added.add(uri);
+			}
+		}
+
+		private void removed(final @NonNull URI uri) {
+			if (added.remove(uri)) {
+				return;
+			}
+
+			changed.remove(uri);
+			URI origin = movedToFrom.remove(uri);
+			if (origin != null) {
+				movedFromTo.remove(origin);
+			}
+			removed.add(origin != null ? origin : uri);
+		}
+
+		private void changed(final @NonNull URI uri) {
+			if (!added.contains(uri)) {
+				changed.add(uri);
+			}
+		}
+
+		private void moved(final @NonNull URI from, final @NonNull URI to) {
+			if (added.remove(from)) {
+				added(to);
+				return;
+			}
+
+			boolean wasChanged = changed.remove(from);
+			URI origin = movedToFrom.remove(from);
+			if (origin == null) {
+				origin = from;
+			} else {
+				movedFromTo.remove(origin);
+			}
+
+			// moving back and forth leaves no move
+			if (!origin.equals(to)) {
+				// the file previously at the target is gone
+				if (removed.remove(to)) {
+					wasChanged = true;
+				}
+				reoccupied(to);
+				movedToFrom.put(to, origin);
+				movedFromTo.put(origin, to);
+			}
+			if (wasChanged) {
+				changed.add(to);
+			}
+		}
+
+		/**
+		 * Turns a move away from {@code uri} into an addition of its target, as
+		 * {@code uri} is occupied again.
+		 *
+		 * @return Whether a file had been moved away from {@code uri}.
+		 */
+		private boolean reoccupied(final @NonNull URI uri) {
+			URI target = movedFromTo.remove(uri);
+			if (target == null) {
+				return false;
+			}
+
+			movedToFrom.remove(target);
+			changed.remove(target);
+			added.add(target);
+			return true;
+		}
+
+		private void opened(final @NonNull IProject project) throws CoreException {
+			project.accept(proxy -> {
+				if (proxy.getType() == IResource.FILE) {
+					added(toUri(proxy.requestFullPath()));
+				}
+				return true;
+			}, IResource.NONE);
+		}
+
+		private void closed(final @NonNull URI project) {
+			added.removeIf(uri -> isInside(uri, project));
+			changed.removeIf(uri -> isInside(uri, project));
+			removed.removeIf(uri -> isInside(uri, project));
+			movedToFrom.entrySet().removeIf(move -> {
+				if (!isInside(move.getKey(), project)) {
+					return false;
+				}
+
+				URI origin = move.getValue();
+				movedFromTo.remove(origin);
+				// origins inside the project are covered by its removal
+				if (!isInside(origin, project)) {
+					removed.add(origin);
+				}
+				return true;
+			});
+			removed.add(project);
+		}
+
+		private static boolean isInside(final @NonNull URI uri, final @NonNull URI container) {
+			int count = container.segmentCount();
+			if (uri.segmentCount() <= count) {
+				return false;
+			}
+			for (int i = count - 1; i >= 0; i--) {
+				if (!uri.segment(i).equals(container.segment(i))) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private static @NonNull URI toUri(final @NonNull IPath path) {
+			return UriUtils.toUri(path);
+		}
+	}
+}
@@ -0,0 +1,160 @@
+package org.eclipse.commons.emf;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.jdt.annotation.NonNull;
+
+/**
+ * Collects workspace file changes as {@linkplain UriDelta URI deltas}, and
+ * delivers them in batches.
+ *
+ * <p>
+ * The collector listens to workspace changes. The first change after a
+ * delivered batch opens a new batch; all changes within the configured
+ * {@linkplain #getWindow(TimeUnit) window} go into the same batch. Changes to
+ * the same file within one batch are coalesced, e.g. a file added and removed
+ * again does not appear at all, and a file moved twice appears as one move.
+ * Thus, bursts like a version control checkout result in one batch rather
+ * than thousands.
+ * </p>
+ *
+ * <p>
+ * Batches are delivered from a system job, one at a time and in order. Empty
+ * batches are never delivered.
+ * </p>
+ *
+ * <p>
+ * Instances are thread-safe. Call {@link #dispose()} once the collector is
+ * not needed anymore to unregister its workspace listener.
+ * </p>
+ *
+ * @author Niko Stotz
+ *
+ * @since 0.2
+ *
+ */
+public class UriDeltaCollector {
+	private final long windowMillis;
+
+	private final @NonNull Consumer<@NonNull UriDelta> consumer;
+
+	private final UriDelta.Builder pending = new UriDelta.Builder();
+
+	// serializes delivery, so batches arrive one at a time and in order
+	private final Object delivery = new Object();
+
+	private final IResourceChangeListener listener = this::resourceChanged;
+
+	private final Job job = new Job("Deliver URI deltas") {
+		@Override
+		protected IStatus run(final IProgressMonitor monitor) {
+			flush();
+			return Status.OK_STATUS;
+		}
+	};
+
+	private boolean scheduled = false;
+
+	/**
+	 * Creates a collector and starts listening to workspace changes.
+	 *
+	 * @param window
+	 *            How long to collect changes into one batch.
+	 * @param unit
+	 *            Unit of {@code window}.
+	 * @param consumer
+	 *            Receives the batches.
+	 *
+	 * @throws IllegalArgumentException
+	 *             If {@code window} is negative.
+	 *
+	 * @since 0.2
+	 */
+	public UriDeltaCollector(final long window, final @NonNull TimeUnit unit,
+			final @NonNull Consumer<@NonNull UriDelta> consumer) {
+		if (window < 0) {
+			throw new IllegalArgumentException("window must not be negative: " + window);
+		}
+
+		this.windowMillis = unit.toMillis(window);
+		this.consumer = consumer;
+		job.setSystem(true);
+
+		ResourcesPlugin.getWorkspace().addResourceChangeListener(listener, IResourceChangeEvent.POST_CHANGE);
+	}
+
+	/**
+	 * Returns the window changes are collected within.
+	 *
+	 * @param unit
+	 *            Unit of the result.
+	 * @return The window in {@code unit}.
+	 *
+	 * @since 0.2
+	 */
+	public long getWindow(final @NonNull TimeUnit unit) {
+		return unit.convert(windowMillis, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Delivers the current batch immediately, if not empty.
+	 *
+	 * <p>
+	 * The batch is delivered in the calling thread.
+	 * </p>
+	 *
+	 * @since 0.2
+	 */
+	public void flush() {
+		synchronized (delivery) {
+			UriDelta batch;
+			synchronized (pending) {
+				scheduled = false;
+				if (pending.isEmpty()) {
+					return;
+				}
+				batch = pending.build();
+				pending.clear();
+			}
+			consumer.accept(batch);
+		}
+	}
+
+	/**
+	 * Unregisters the workspace listener and discards the current batch.
+	 *
+	 * @since 0.2
+	 */
+	public void dispose() {
+		ResourcesPlugin.getWorkspace().removeResourceChangeListener(listener);
+		job.cancel();
+		synchronized (pending) {
+			pending.clear();
+			scheduled = false;
+		}
+	}
+
+	private void resourceChanged(final IResourceChangeEvent event) {
+		IResourceDelta delta = event.getDelta();
+		if (delta == null) {
+			return;
+		}
+
+		synchronized (pending) {
+			pending.add(delta);
+			if (!scheduled && !pending.isEmpty()) {
+				scheduled = true;
+				job.schedule(windowMillis);
+			}
+		}
+	}
+}
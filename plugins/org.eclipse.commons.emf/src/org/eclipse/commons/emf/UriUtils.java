@@ -1,11 +1,21 @@
 package org.eclipse.commons.emf;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.resources.IContainer;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.resources.IWorkspaceRoot;
 import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.Path;
 import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.URIConverter;
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
 
@@ -13,12 +23,45 @@ import org.eclipse.jdt.annotation.Nullable;
  * Utilities for handling {@linkplain org.eclipse.emf.common.util.URI Ecore
  * URIs}.
  * 
+ * <p>
+ * All methods are thread-safe and may be called concurrently from any number
+ * of threads, e.g. by parallel workers loading EMF resources on a fork-join
+ * pool. If the workspace changes concurrently, a result reflects the workspace
+ * state at some moment during the call. {@link CachingUriResolver} avoids
+ * repeated tree lookups for parallel workers resolving the same URIs.
+ * </p>
+ * 
+ * <p>
+ * {@link #toIResource(URI)}, {@link #toIResources(Collection)},
+ * {@link #toPath(URI)}, {@link #toUri(IResource)}, and the other methods
+ * working on platform resource URIs only read the workspace resource tree.
+ * They never acquire a lock, the workspace lock, or any scheduling rule, so
+ * they neither block on nor interfere with jobs holding scheduling rules.
+ * </p>
+ * 
+ * <p>
+ * Methods backed by an index, i.e. {@link #toIResourceIgnoreCase(URI)} and the
+ * resolution of {@linkplain URI#isFile() file URIs} and aliases, build their
+ * index on first use, or after it was invalidated, while holding its monitor.
+ * Calls arriving meanwhile wait for the build; lookups in a built index don't
+ * lock. They don't acquire the workspace lock either.
+ * {@link #enablePersistentIndex()} registers a workspace save participant and
+ * processes the saved-state delta, which both acquire the workspace lock.
+ * </p>
+ * 
  * @author Niko Stotz
  * 
  * @since 0.1
  *
  */
 public class UriUtils {
+	private static final String PLATFORM_SCHEME = "platform";
+
+	private static final String PLATFORM_RESOURCE_SEGMENT = "resource";
+
+	private static final @NonNull URI PLATFORM_RESOURCE_ROOT = URI.createPlatformResourceURI("/", false);
+
+	private static final CanonicalUriTable CANONICAL_URIS = new CanonicalUriTable();
 
 	/**
 	 * Returns the equivalent {@linkplain org.eclipse.core.resources.IResource
@@ -65,6 +108,8 @@ public class UriUtils {
 	 * {@code platform:/resource/MyProject/myFolder/mYfILE.ext} to this method, the
 	 * result is an IFile for path {@code /MyProject/myFolder/mYfILE.ext}.
 	 * {@link IResource#exists() result.exists()} will return {@code false}.
+	 * Use {@link #toIResourceIgnoreCase(URI)} to find the existing resource
+	 * instead.
 	 * </p>
 	 * 
 	 * @param uri
@@ -78,17 +123,683 @@ public class UriUtils {
 	 * @since 0.1
 	 */
 	public static @Nullable IResource toIResource(final @NonNull URI uri) {
-		if (uri.isPlatformResource()) {
-			String platformString = uri.toPlatformString(true);
-			IPath path = Path.fromOSString(platformString);
+		long start = ResolutionStatistics.start();
+		IPath path = toPath(uri);
+		if (path != null) {
 			IWorkspaceRoot workspaceRoot = ResourcesPlugin.getWorkspace().getRoot();
-			if (workspaceRoot.exists(path)) {
-				return workspaceRoot.findMember(path);
+			// findMember() answers both existence and type with one tree lookup
+			IResource member = workspaceRoot.findMember(path);
+			if (member != null) {
+				ResolutionStatistics.recordResource(start, uri, member, true);
+				return member;
 			} else {
-				return workspaceRoot.getFile(path);
+				IResource result = workspaceRoot.getFile(path);
+				ResolutionStatistics.recordResource(start, uri, result, false);
+				return result;
+			}
+		}
+
+		ResolutionStatistics.recordNonPlatform(start, uri);
+		return null;
+	}
+
+	/**
+	 * Returns the statistics of {@link #toIResource(URI)}.
+	 * 
+	 * <p>
+	 * The statistics count calls, their outcome (existing resource by type,
+	 * missing file, or {@code null}), and their latency, as well as the cache
+	 * hits and misses of all {@link CachingUriResolver}s. While this bundle is
+	 * active, they are also available through JMX as
+	 * {@value ResolutionStatisticsMBean#OBJECT_NAME}.
+	 * </p>
+	 * 
+	 * <p>
+	 * Collecting is disabled by default. Enable it with
+	 * {@link ResolutionStatisticsMBean#setEnabled(boolean)}, or with the debug
+	 * option {@code org.eclipse.commons.emf/debug/statistics}. The debug option
+	 * {@code org.eclipse.commons.emf/debug/resolution} additionally traces every
+	 * call to the debug trace of this bundle.
+	 * </p>
+	 * 
+	 * @return The statistics of {@link #toIResource(URI)}.
+	 * 
+	 * @since 0.2
+	 */
+	public static @NonNull ResolutionStatisticsMBean getStatistics() {
+		return ResolutionStatistics.getInstance();
+	}
+
+	/**
+	 * Same as {@link #toIResource(URI)}, but matches {@code uri} against the
+	 * workspace case-insensitively.
+	 * 
+	 * <p>
+	 * If a resource exists exactly at {@code uri}, this method returns it.
+	 * Otherwise, every segment of {@code uri} is matched ignoring case, and the
+	 * result uses the actual spelling of the workspace. Example: If the workspace
+	 * contained a file at {@code /MyProject/myFolder/myFile.ext}, both
+	 * {@code platform:/resource/MyProject/myFolder/mYfILE.ext} and
+	 * {@code platform:/resource/myproject/MYFOLDER/myfile.ext} lead to an
+	 * existing IFile for this path.
+	 * </p>
+	 * 
+	 * <p>
+	 * If the resulting IResource does not exist, this method returns an IFile.
+	 * Its path uses the actual spelling for all existing parent containers, and
+	 * the spelling of {@code uri} for the rest.
+	 * </p>
+	 * 
+	 * <p>
+	 * If several resources differ only in case, this method returns one of them.
+	 * </p>
+	 * 
+	 * <p>
+	 * The lookup uses an index of all workspace paths, keyed by their lower-cased
+	 * names. The index is built on the first call (once per workspace, not per
+	 * call) and afterwards updated from resource deltas. Thus, every lookup costs
+	 * one hash lookup per segment of {@code uri}, regardless of the number of
+	 * members of each container. Call {@link #enablePersistentIndex()} to reuse
+	 * the index of the previous session instead of building it.
+	 * </p>
+	 * 
+	 * @param uri
+	 *            The Ecore URI to return as Eclipse IResource.
+	 * @return {@code uri} as Eclipse IResource, if available; {@code null}
+	 *         otherwise.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If {@code uri} is seriously ill-formatted.
+	 * 
+	 * @since 0.2
+	 */
+	public static @Nullable IResource toIResourceIgnoreCase(final @NonNull URI uri) {
+		IPath path = toPath(uri);
+		if (path != null) {
+			IResource member = ResourcesPlugin.getWorkspace().getRoot().findMember(path);
+			if (member != null) {
+				return member;
+			} else {
+				return CaseFoldedPathIndex.getInstance().findResource(path);
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Persists the index used by {@link #toIResourceIgnoreCase(URI)} across
+	 * sessions.
+	 * 
+	 * <p>
+	 * Once enabled, the index is written to the state location of this bundle on
+	 * every full workspace save. This method restores the index written by the
+	 * previous session, and applies all workspace changes since that save
+	 * (as recorded by the workspace's saved state). Thus, case-insensitive
+	 * resolution is fast right away, instead of visiting the whole workspace on
+	 * first use.
+	 * </p>
+	 * 
+	 * <p>
+	 * Call this method early, e.g. when the application starts. If no usable
+	 * index of the previous session exists, the index is built on first use as
+	 * usual. Subsequent calls have no effect.
+	 * </p>
+	 * 
+	 * @throws CoreException
+	 *             If the workspace save participant cannot be registered.
+	 * 
+	 * @since 0.2
+	 */
+	public static void enablePersistentIndex() throws CoreException {
+		PersistentPathIndex.enable();
+	}
+
+	/**
+	 * Returns the equivalent {@linkplain org.eclipse.core.resources.IResource
+	 * Eclipse IResource} for an {@linkplain org.eclipse.emf.common.util.URI Ecore
+	 * URI} after {@linkplain URIConverter#normalize(URI) normalizing} it, if
+	 * available.
+	 * 
+	 * <p>
+	 * This method considers all URI mappings known to {@code uriConverter},
+	 * e.g. {@link URIConverter#URI_MAP} or the mappings of a specific
+	 * {@linkplain org.eclipse.emf.ecore.resource.ResourceSet ResourceSet}. Thus,
+	 * it can resolve {@code platform:/plugin/} or other URIs redirected into the
+	 * workspace.
+	 * </p>
+	 * 
+	 * <p>
+	 * If the normalized URI is a {@linkplain URI#isPlatformResource() platform
+	 * resource}, this method behaves like {@link #toIResource(URI)}.<br/>
+	 * If the normalized URI is a {@linkplain URI#isFile() file URI} located
+	 * within an open project or linked resource, this method returns the
+	 * resource at this location, following the same contract as
+	 * {@link #toIResource(URI)}. The location is looked up in an index of
+	 * project and linked resource locations, which is cheaper than
+	 * {@link IWorkspaceRoot#findFilesForLocationURI(java.net.URI)}. If several
+	 * resources share this location, the result is the canonical one of
+	 * {@link #toIResourceAliases(URI, URIConverter)}.<br/>
+	 * Otherwise, this method returns {@code null}.
+	 * </p>
+	 * 
+	 * @param uri
+	 *            The Ecore URI to return as Eclipse IResource.
+	 * @param uriConverter
+	 *            The URI converter to normalize {@code uri} with.
+	 * @return {@code uri} as Eclipse IResource, if available; {@code null}
+	 *         otherwise.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If {@code uri} is seriously ill-formatted.
+	 * 
+	 * @since 0.2
+	 */
+	public static @Nullable IResource toIResource(final @NonNull URI uri, final @NonNull URIConverter uriConverter) {
+		URI normalized = uriConverter.normalize(uri);
+
+		if (normalized.isPlatformResource()) {
+			return toIResource(normalized);
+		}
+
+		if (normalized.isFile()) {
+			String fileString = normalized.toFileString();
+			if (fileString != null) {
+				return LocationIndex.getInstance().findResource(Path.fromOSString(fileString));
 			}
 		}
 
 		return null;
 	}
+
+	/**
+	 * Same as {@link #toIResource(URI, URIConverter)}, using the
+	 * {@linkplain ResourceSet#getURIConverter() URI converter} of
+	 * {@code resourceSet}.
+	 * 
+	 * @param uri
+	 *            The Ecore URI to return as Eclipse IResource.
+	 * @param resourceSet
+	 *            The resource set to normalize {@code uri} with.
+	 * @return {@code uri} as Eclipse IResource, if available; {@code null}
+	 *         otherwise.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If {@code uri} is seriously ill-formatted.
+	 * 
+	 * @since 0.2
+	 */
+	public static @Nullable IResource toIResource(final @NonNull URI uri, final @NonNull ResourceSet resourceSet) {
+		return toIResource(uri, resourceSet.getURIConverter());
+	}
+
+	/**
+	 * Returns all {@linkplain org.eclipse.core.resources.IResource Eclipse
+	 * IResources} sharing the file system location of an
+	 * {@linkplain org.eclipse.emf.common.util.URI Ecore URI} after
+	 * {@linkplain URIConverter#normalize(URI) normalizing} it.
+	 * 
+	 * <p>
+	 * A file system location can be reachable by several workspace paths, e.g.
+	 * through {@linkplain IResource#isLinked() linked} folders or nested
+	 * projects. This method returns all of them, following the same contract as
+	 * {@link #toIResource(URI)} for each. The first element is the canonical
+	 * one: Resources reached through projects come before resources reached
+	 * through linked resources; among them, the most specific location comes
+	 * first. {@link #toIResource(URI, URIConverter)} returns the canonical
+	 * resource for {@linkplain URI#isFile() file URIs}.
+	 * </p>
+	 * 
+	 * <p>
+	 * The aliases are looked up in an index of the locations of all open
+	 * projects and linked resources, which is maintained from resource deltas.
+	 * This avoids scanning all projects like
+	 * {@link IWorkspaceRoot#findFilesForLocationURI(java.net.URI)}. If the
+	 * normalized URI is a {@linkplain URI#isPlatformResource() platform
+	 * resource}, the result always contains {@code toIResource(uri)}, even if it
+	 * has no location (like virtual folders).
+	 * </p>
+	 * 
+	 * @param uri
+	 *            The Ecore URI to return the aliases of.
+	 * @param uriConverter
+	 *            The URI converter to normalize {@code uri} with.
+	 * @return All Eclipse IResources at the location of {@code uri}, canonical
+	 *         one first; an empty list if {@code uri} cannot be represented as
+	 *         IResource.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If {@code uri} is seriously ill-formatted.
+	 * 
+	 * @since 0.2
+	 */
+	public static @NonNull List<IResource> toIResourceAliases(final @NonNull URI uri,
+			final @NonNull URIConverter uriConverter) {
+		URI normalized = uriConverter.normalize(uri);
+
+		if (normalized.isPlatformResource()) {
+			IResource resource = toIResource(normalized);
+			IPath location = resource != null ? resource.getLocation() : null;
+			List<IResource> result = location != null ? LocationIndex.getInstance().findAliases(location)
+					: new ArrayList<>(1);
+			if (resource != null && !result.contains(resource)) {
+				result.add(resource);
+			}
+			return result;
+		}
+
+		if (normalized.isFile()) {
+			String fileString = normalized.toFileString();
+			if (fileString != null) {
+				return LocationIndex.getInstance().findAliases(Path.fromOSString(fileString));
+			}
+		}
+
+		return new ArrayList<>(0);
+	}
+
+	/**
+	 * Returns the workspace path of an {@linkplain org.eclipse.emf.common.util.URI
+	 * Ecore URI}, if available.
+	 * 
+	 * <p>
+	 * {@code uri} can be represented as workspace path if {@code uri} is an
+	 * {@linkplain URI#isPlatformResource() platform resource}. Otherwise, this
+	 * method returns {@code null}.
+	 * </p>
+	 * 
+	 * <p>
+	 * The path is built from the {@linkplain URI#segment(int) segments} of
+	 * {@code uri}, rather than by rendering and decoding the whole URI. It treats
+	 * fragments, queries, excess slashes, and case-sensitivity exactly like
+	 * {@link #toIResource(URI)}, and decodes only segments containing escape
+	 * sequences. As {@link IPath} cannot be created from segments, the path is
+	 * still parsed from one intermediate string.
+	 * </p>
+	 * 
+	 * @param uri
+	 *            The Ecore URI to return as workspace path.
+	 * @return The absolute workspace path of {@code uri}, if available;
+	 *         {@code null} otherwise.
+	 * 
+	 * @since 0.2
+	 */
+	public static @Nullable IPath toPath(final @NonNull URI uri) {
+		if (!uri.isPlatformResource()) {
+			return null;
+		}
+
+		// Segment 0 is the PLATFORM_RESOURCE_SEGMENT
+		int segmentCount = uri.segmentCount();
+		int length = 0;
+		for (int i = 1; i < segmentCount; i++) {
+			length += uri.segment(i).length() + 1;
+		}
+		if (length == segmentCount - 1) {
+			// Only empty segments
+			return Path.ROOT;
+		}
+
+		// Path offers no way to create a path from segments
+		StringBuilder builder = new StringBuilder(length);
+		for (int i = 1; i < segmentCount; i++) {
+			String segment = uri.segment(i);
+			if (segment.isEmpty()) {
+				continue;
+			}
+
+			builder.append(IPath.SEPARATOR).append(decodeSegment(segment));
+		}
+
+		return Path.fromOSString(builder.toString());
+	}
+
+	/**
+	 * Returns the canonical form of a
+	 * {@linkplain URI#isPlatformResource() platform resource}
+	 * {@linkplain org.eclipse.emf.common.util.URI Ecore URI}, validating it
+	 * first.
+	 * 
+	 * <p>
+	 * The canonical form drops any {@linkplain URI#fragment() fragment} and
+	 * {@linkplain URI#query() query}, collapses excess slashes, resolves
+	 * {@code .} and {@code ..} segments, and encodes segments like
+	 * {@link #toUri(IPath)}. It is the identical instance {@link #toUri(IPath)}
+	 * returns for the workspace path of {@code uri}. Thus, all aliases of the
+	 * same workspace path map to one URI, which is suitable as cache key.
+	 * </p>
+	 * 
+	 * <p>
+	 * Before converting anything, one pass over the segments of {@code uri}
+	 * rejects the URI if any segment, after decoding, contains a slash, a
+	 * backslash, a colon (i.e. a device separator), or a NUL character, or if a
+	 * {@code ..} segment would escape the workspace root. Such URIs are not
+	 * rejected by {@link #toIResource(URI)}, but silently changed into a
+	 * different path. {@link #isValidPlatformResource(URI)} runs the same
+	 * checks without throwing.
+	 * </p>
+	 * 
+	 * @param uri
+	 *            The Ecore URI to normalize.
+	 * @return The canonical form of {@code uri}; {@code null} if {@code uri} is
+	 *         not a platform resource.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If {@code uri} is an invalid platform resource.
+	 * 
+	 * @since 0.2
+	 */
+	public static @Nullable URI normalize(final @NonNull URI uri) {
+		if (!uri.isPlatformResource()) {
+			return null;
+		}
+
+		int invalid = findInvalidSegment(uri);
+		if (invalid >= 0) {
+			throw new IllegalArgumentException("Invalid segment " + invalid + " in platform resource URI: " + uri);
+		}
+
+		IPath path = toPath(uri);
+		return toUri(path != null ? path : Path.ROOT);
+	}
+
+	/**
+	 * Returns whether an {@linkplain org.eclipse.emf.common.util.URI Ecore URI}
+	 * is a valid {@linkplain URI#isPlatformResource() platform resource}.
+	 * 
+	 * <p>
+	 * This runs the checks of {@link #normalize(URI)} in one pass over the
+	 * segments of {@code uri}, without allocating anything. It suits
+	 * pre-filtering many URIs cheaply.
+	 * </p>
+	 * 
+	 * @param uri
+	 *            The Ecore URI to check.
+	 * @return {@code true} if {@code uri} is a platform resource that
+	 *         {@link #normalize(URI)} accepts.
+	 * 
+	 * @since 0.2
+	 */
+	public static boolean isValidPlatformResource(final @NonNull URI uri) {
+		return uri.isPlatformResource() && findInvalidSegment(uri) < 0;
+	}
+
+	/**
+	 * @return Index of the first invalid segment of the platform resource
+	 *         {@code uri}; {@code -1} if all are valid.
+	 */
+	private static int findInvalidSegment(final @NonNull URI uri) {
+		int depth = 0;
+		// Segment 0 is the PLATFORM_RESOURCE_SEGMENT
+		for (int i = 1, segmentCount = uri.segmentCount(); i < segmentCount; i++) {
+			int dots = countDotsIfValid(uri.segment(i));
+			if (dots < 0) {
+				return i;
+			} else if (dots == 2) {
+				if (--depth < 0) {
+					return i;
+				}
+			} else if (dots == 0) {
+				depth++;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @return {@code -1} if {@code segment} is invalid; {@code 1} for an empty
+	 *         or {@code .} segment; {@code 2} for a {@code ..} segment;
+	 *         {@code 0} for any other valid segment.
+	 */
+	private static int countDotsIfValid(final @NonNull String segment) {
+		int length = segment.length();
+		int decodedLength = 0;
+		boolean onlyDots = true;
+		for (int i = 0; i < length; i++) {
+			int c = segment.charAt(i);
+			if (c == '%' && i + 2 < length) {
+				int high = Character.digit(segment.charAt(i + 1), 16);
+				int low = Character.digit(segment.charAt(i + 2), 16);
+				if (high >= 0 && low >= 0) {
+					c = (high << 4) | low;
+					i += 2;
+				}
+			}
+
+			if (c == IPath.SEPARATOR || c == '\\' || c == IPath.DEVICE_SEPARATOR || c == 0) {
+				return -1;
+			}
+			onlyDots &= c == '.';
+			decodedLength++;
+		}
+
+		if (decodedLength == 0) {
+			return 1;
+		}
+		if (onlyDots && decodedLength <= 2) {
+			return decodedLength;
+		}
+		return 0;
+	}
+
+	/**
+	 * Returns the type of the resource existing at an
+	 * {@linkplain org.eclipse.emf.common.util.URI Ecore URI}, as answered by
+	 * {@code resolver}.
+	 * 
+	 * <p>
+	 * This method treats {@code uri} exactly like {@link #toIResource(URI)}, but
+	 * does not create any IResource handle. With {@link PathResolver#WORKSPACE},
+	 * the result equals {@code toIResource(uri).getType()} for existing
+	 * resources. Other resolvers, like {@link InMemoryPathResolver}, do not need
+	 * the Eclipse workspace at all.
+	 * </p>
+	 * 
+	 * @param uri
+	 *            The Ecore URI to look up.
+	 * @param resolver
+	 *            The resolver to look up the workspace path of {@code uri} with.
+	 * @return The {@linkplain IResource#getType() type} of the existing resource
+	 *         at {@code uri}; {@link IResource#NONE} if {@code uri} is not a
+	 *         platform resource, or nothing exists there.
+	 * 
+	 * @since 0.2
+	 */
+	public static int getResourceType(final @NonNull URI uri, final @NonNull PathResolver resolver) {
+		IPath path = toPath(uri);
+		if (path != null) {
+			return resolver.getType(path);
+		}
+
+		return IResource.NONE;
+	}
+
+	/**
+	 * Returns the {@linkplain URI#isPlatformResource() platform resource}
+	 * {@linkplain org.eclipse.emf.common.util.URI Ecore URI} of an
+	 * {@linkplain org.eclipse.core.resources.IResource Eclipse IResource}.
+	 * 
+	 * <p>
+	 * This is the reverse of {@link #toIResource(URI)}: For any resource,
+	 * {@code toIResource(toUri(resource))} equals {@code resource}, if
+	 * {@code resource} exists or is an IFile.
+	 * </p>
+	 * 
+	 * <p>
+	 * See {@link #toUri(IPath)} for details on the result.
+	 * </p>
+	 * 
+	 * @param resource
+	 *            The Eclipse IResource to return as Ecore URI.
+	 * @return {@code resource} as Ecore URI.
+	 * 
+	 * @since 0.2
+	 */
+	public static @NonNull URI toUri(final @NonNull IResource resource) {
+		return toUri(resource.getFullPath());
+	}
+
+	/**
+	 * Returns the {@linkplain URI#isPlatformResource() platform resource}
+	 * {@linkplain org.eclipse.emf.common.util.URI Ecore URI} of a workspace path.
+	 * 
+	 * <p>
+	 * The result equals
+	 * {@link URI#createPlatformResourceURI(String, boolean)
+	 * URI.createPlatformResourceURI(path.toString(), true)}. It is the reverse of
+	 * {@link #toPath(URI)}, i.e. {@code toPath(toUri(path))} equals
+	 * {@code path}.
+	 * </p>
+	 * 
+	 * <p>
+	 * The results are canonicalized: As long as a result for the same path is
+	 * referenced anywhere, this method returns the identical instance. Thus,
+	 * repeated conversions do not allocate, and results can be compared by
+	 * identity.
+	 * </p>
+	 * 
+	 * @param path
+	 *            The workspace path to return as Ecore URI. Relative paths are
+	 *            treated as absolute; trailing separators are ignored.
+	 * @return {@code path} as Ecore URI.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If {@code path} has a {@linkplain IPath#getDevice() device}.
+	 * 
+	 * @since 0.2
+	 */
+	public static @NonNull URI toUri(final @NonNull IPath path) {
+		if (path.getDevice() != null) {
+			throw new IllegalArgumentException("Workspace paths cannot have a device: " + path);
+		}
+
+		IPath key = path;
+		if (!key.isAbsolute()) {
+			key = key.makeAbsolute();
+		}
+		if (key.hasTrailingSeparator()) {
+			key = key.removeTrailingSeparator();
+		}
+
+		return CANONICAL_URIS.intern(key, UriUtils::createUri);
+	}
+
+	private static @NonNull URI createUri(final @NonNull IPath path) {
+		int segmentCount = path.segmentCount();
+		if (segmentCount == 0) {
+			return PLATFORM_RESOURCE_ROOT;
+		}
+
+		String[] segments = new String[segmentCount + 1];
+		segments[0] = PLATFORM_RESOURCE_SEGMENT;
+		for (int i = 0; i < segmentCount; i++) {
+			segments[i + 1] = encodeSegment(path.segment(i));
+		}
+
+		return URI.createHierarchicalURI(PLATFORM_SCHEME, null, null, segments, null, null);
+	}
+
+	private static @NonNull String decodeSegment(final @NonNull String segment) {
+		if (segment.indexOf('%') >= 0) {
+			return URI.decode(segment);
+		}
+		return segment;
+	}
+
+	private static @NonNull String encodeSegment(final @NonNull String segment) {
+		// Escapes '%' too, like URI.createPlatformResourceURI(..., true)
+		return URI.encodeSegment(segment, false);
+	}
+
+	/**
+	 * Returns the equivalent {@linkplain org.eclipse.core.resources.IResource
+	 * Eclipse IResources} for several {@linkplain org.eclipse.emf.common.util.URI
+	 * Ecore URIs}.
+	 * 
+	 * <p>
+	 * Each element of the result is exactly what {@link #toIResource(URI)} would
+	 * return for the {@code uris} element at the same position (including
+	 * {@code null} for URIs that cannot be represented as IResource).
+	 * </p>
+	 * 
+	 * <p>
+	 * This method is considerably faster than calling {@link #toIResource(URI)}
+	 * for each URI: It obtains the workspace root only once, resolves every
+	 * distinct path only once, and looks up every parent folder only once. URIs
+	 * below a missing folder are answered without any workspace lookup.
+	 * </p>
+	 * 
+	 * @param uris
+	 *            The Ecore URIs to return as Eclipse IResources.
+	 * @return A list with the same size and iteration order as {@code uris},
+	 *         containing each URI as Eclipse IResource, if available;
+	 *         {@code null} otherwise.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If any of {@code uris} is seriously ill-formatted.
+	 * 
+	 * @since 0.2
+	 */
+	public static @NonNull List<IResource> toIResources(final @NonNull Collection<@NonNull URI> uris) {
+		IWorkspaceRoot workspaceRoot = ResourcesPlugin.getWorkspace().getRoot();
+		List<IResource> result = new ArrayList<>(uris.size());
+		Map<IPath, IResource> resources = new HashMap<>();
+		Map<IPath, IContainer> containers = new HashMap<>();
+
+		for (URI uri : uris) {
+			IPath path = toPath(uri);
+			if (path != null) {
+				IResource resource = resources.get(path);
+				if (resource == null) {
+					resource = resolve(workspaceRoot, path, containers);
+					resources.put(path, resource);
+				}
+				result.add(resource);
+			} else {
+				result.add(null);
+			}
+		}
+
+		return result;
+	}
+
+	private static @NonNull IResource resolve(final @NonNull IWorkspaceRoot workspaceRoot, final @NonNull IPath path,
+			final @NonNull Map<IPath, IContainer> containers) {
+		if (path.segmentCount() == 0) {
+			return workspaceRoot;
+		}
+
+		IContainer parent = findContainer(workspaceRoot, path.removeLastSegments(1), containers);
+		if (parent != null) {
+			IResource member = parent.findMember(path.lastSegment());
+			if (member != null) {
+				return member;
+			}
+		}
+
+		return workspaceRoot.getFile(path);
+	}
+
+	private static @Nullable IContainer findContainer(final @NonNull IWorkspaceRoot workspaceRoot,
+			final @NonNull IPath path, final @NonNull Map<IPath, IContainer> containers) {
+		if (path.segmentCount() == 0) {
+			return workspaceRoot;
+		}
+
+		if (containers.containsKey(path)) {
+			return containers.get(path);
+		}
+
+		IContainer container = null;
+		IContainer parent = findContainer(workspaceRoot, path.removeLastSegments(1), containers);
+		if (parent != null) {
+			IResource member = parent.findMember(path.lastSegment());
+			if (member instanceof IContainer) {
+				container = (IContainer) member;
+			}
+		}
+
+		containers.put(path, container);
+		return container;
+	}
 }
@@ -0,0 +1,25 @@
+package org.eclipse.commons.emf;
+
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.jdt.annotation.NonNull;
+
+/**
+ * {@link PathResolver} backed by the Eclipse workspace.
+ *
+ * <p>
+ * The workspace is only accessed on lookup, so merely referencing
+ * {@link PathResolver#WORKSPACE} does not require it.
+ * </p>
+ *
+ * @author Niko Stotz
+ *
+ */
+final class WorkspacePathResolver implements PathResolver {
+	@Override
+	public int getType(final @NonNull IPath path) {
+		IResource member = ResourcesPlugin.getWorkspace().getRoot().findMember(path);
+		return member != null ? member.getType() : IResource.NONE;
+	}
+}
@@ -0,0 +1,332 @@
+package org.eclipse.commons.emf;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.URIConverter;
+import org.eclipse.emf.ecore.resource.impl.PlatformResourceURIHandlerImpl;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * {@linkplain org.eclipse.emf.ecore.resource.URIHandler URI handler} reading
+ * {@linkplain URI#isPlatformResource() platform resources} directly from the
+ * local file system.
+ *
+ * <p>
+ * The default handler reads workspace files through
+ * {@link IFile#getContents()}, which passes the bytes through several stream
+ * layers. This handler resolves the URI like {@link UriUtils#toIResource(URI)}
+ * and, if the result is an existing, synchronized IFile stored in the local
+ * file system, reads its location directly through a {@link FileChannel}, in
+ * chunks of 64 KB. The chunk buffers are direct buffers reused across streams,
+ * so reading neither copies through intermediate heap buffers nor allocates
+ * per file. All other cases, and all operations except reading, are handled
+ * like by the default handler.
+ * </p>
+ *
+ * <p>
+ * To use the handler, add it in front of the default handlers:
+ * </p>
+ *
+ * <pre>
+ * resourceSet.getURIConverter().getURIHandlers().add(0, new WorkspaceUriHandler());
+ * </pre>
+ *
+ * <p>
+ * Optionally, files of at least {@link #getMappingThreshold()} bytes are
+ * memory-mapped instead. Memory-mapped files are released by the garbage
+ * collector, not by closing the stream. On Windows, a mapped file cannot be
+ * deleted or overwritten until then, so saving a model right after loading it
+ * may fail. Therefore, mapping is disabled unless requested explicitly.
+ * </p>
+ *
+ * @author Niko Stotz
+ *
+ * @since 0.2
+ *
+ */
+public class WorkspaceUriHandler extends PlatformResourceURIHandlerImpl {
+	/**
+	 * Mapping threshold disabling memory-mapping; used if not specified
+	 * otherwise.
+	 *
+	 * @since 0.2
+	 */
+	public static final long NO_MAPPING = Long.MAX_VALUE;
+
+	private static final int CHUNK_SIZE = 1 << 16;
+
+	// Direct buffers are expensive to allocate and only freed by the garbage
+	// collector; released buffers beyond the capacity are dropped
+	private static final BlockingQueue<ByteBuffer> BUFFERS = new ArrayBlockingQueue<>(
+			Runtime.getRuntime().availableProcessors());
+
+	private final long mappingThreshold;
+
+	/**
+	 * Creates a handler reading all files in chunks, without memory-mapping.
+	 *
+	 * @since 0.2
+	 */
+	public WorkspaceUriHandler() {
+		this(NO_MAPPING);
+	}
+
+	/**
+	 * Creates a handler memory-mapping files of at least
+	 * {@code mappingThreshold} bytes.
+	 *
+	 * @param mappingThreshold
+	 *            File size from which on files are memory-mapped;
+	 *            {@link #NO_MAPPING} disables memory-mapping.
+	 *
+	 * @throws IllegalArgumentException
+	 *             If {@code mappingThreshold} is negative.
+	 *
+	 * @since 0.2
+	 */
+	public WorkspaceUriHandler(final long mappingThreshold) {
+		if (mappingThreshold < 0) {
+			throw new IllegalArgumentException("mappingThreshold must not be negative: " + mappingThreshold);
+		}
+
+		this.mappingThreshold = mappingThreshold;
+	}
+
+	/**
+	 * Returns the file size from which on files are memory-mapped.
+	 *
+	 * @return File size from which on files are memory-mapped;
+	 *         {@link #NO_MAPPING} if disabled.
+	 *
+	 * @since 0.2
+	 */
+	public long getMappingThreshold() {
+		return mappingThreshold;
+	}
+
+	@Override
+	public InputStream createInputStream(final URI uri, final Map<?, ?> options) throws IOException {
+		IResource resource = UriUtils.toIResource(uri);
+		IPath location = resource instanceof IFile ? getLocalLocation((IFile) resource) : null;
+		if (location == null) {
+			return super.createInputStream(uri, options);
+		}
+
+		FileChannel channel = FileChannel.open(location.toFile().toPath(), StandardOpenOption.READ);
+		InputStream result;
+		try {
+			long size = channel.size();
+			if (size >= mappingThreshold) {
+				result = new MappedInputStream(channel, size);
+			} else {
+				result = new ChunkedInputStream(channel);
+			}
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+
+		Map<Object, Object> response = getResponse(options);
+		if (response != null) {
+			response.put(URIConverter.RESPONSE_TIME_STAMP_PROPERTY, resource.getLocalTimeStamp());
+		}
+
+		return result;
+	}
+
+	private static @Nullable IPath getLocalLocation(final @NonNull IFile file) {
+		if (!file.exists() || !file.isSynchronized(IResource.DEPTH_ZERO)) {
+			return null;
+		}
+
+		// null if not stored in the local file system
+		return file.getLocation();
+	}
+
+	/**
+	 * Reads a file in chunks through a pooled direct buffer.
+	 */
+	private static final class ChunkedInputStream extends InputStream {
+		private final @NonNull FileChannel channel;
+
+		// in read mode; null once closed
+		private ByteBuffer buffer;
+
+		ChunkedInputStream(final @NonNull FileChannel channel) {
+			this.channel = channel;
+			ByteBuffer pooled = BUFFERS.poll();
+			buffer = pooled != null ? pooled : ByteBuffer.allocateDirect(CHUNK_SIZE);
+			buffer.clear().limit(0);
+		}
+
+		@Override
+		public int read() throws IOException {
+			if (!ensureChunk()) {
+				return -1;
+			}
+			return buffer.get() & 0xff;
+		}
+
+		@Override
+		public int read(final byte[] target, final int offset, final int length) throws IOException {
+			if (length == 0) {
+				return 0;
+			}
+			if (!ensureChunk()) {
+				return -1;
+			}
+
+			int count = Math.min(length, buffer.remaining());
+			buffer.get(target, offset, count);
+			return count;
+		}
+
+		@Override
+		public long skip(final long count) throws IOException {
+			if (count <= 0) {
+				return 0;
+			}
+
+			ByteBuffer current = getBuffer();
+			int inChunk = (int) Math.min(count, current.remaining());
+			current.position(current.position() + inChunk);
+			if (inChunk == count) {
+				return count;
+			}
+
+			long position = channel.position();
+			long step = Math.min(count - inChunk, Math.max(0, channel.size() - position));
+			channel.position(position + step);
+			return inChunk + step;
+		}
+
+		@Override
+		public int available() throws IOException {
+			long remaining = getBuffer().remaining() + Math.max(0, channel.size() - channel.position());
+			return (int) Math.min(Integer.MAX_VALUE, remaining);
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (buffer != null) {
+				BUFFERS.offer(buffer);
+				buffer = null;
+			}
+			channel.close();
+		}
+
+		private boolean ensureChunk() throws IOException {
+			ByteBuffer current = getBuffer();
+			if (current.hasRemaining()) {
+				return true;
+			}
+
+			current.clear();
+			int count = channel.read(current);
+			current.flip();
+			return count > 0;
+		}
+
+		private @NonNull ByteBuffer getBuffer() throws IOException {
+			ByteBuffer result = buffer;
+			if (result == null) {
+				throw new IOException("Stream closed");
+			}
+			return result;
+		}
+	}
+
+	/**
+	 * Reads a file through consecutive memory-mapped windows, so files beyond
+	 * 2 GB can be read, too.
+	 */
+	private static final class MappedInputStream extends InputStream {
+		private static final long WINDOW_SIZE = 1L << 28;
+
+		private final @NonNull FileChannel channel;
+
+		private final long size;
+
+		private long windowStart = 0;
+
+		private MappedByteBuffer window = null;
+
+		MappedInputStream(final @NonNull FileChannel channel, final long size) {
+			this.channel = channel;
+			this.size = size;
+		}
+
+		@Override
+		public int read() throws IOException {
+			if (!ensureWindow()) {
+				return -1;
+			}
+			return window.get() & 0xff;
+		}
+
+		@Override
+		public int read(final byte[] buffer, final int offset, final int length) throws IOException {
+			if (length == 0) {
+				return 0;
+			}
+			if (!ensureWindow()) {
+				return -1;
+			}
+
+			int count = Math.min(length, window.remaining());
+			window.get(buffer, offset, count);
+			return count;
+		}
+
+		@Override
+		public long skip(final long count) throws IOException {
+			long skipped = 0;
+			while (skipped < count && ensureWindow()) {
+				int step = (int) Math.min(count - skipped, window.remaining());
+				window.position(window.position() + step);
+				skipped += step;
+			}
+			return skipped;
+		}
+
+		@Override
+		public int available() {
+			long position = window != null ? windowStart + window.position() : 0;
+			return (int) Math.min(Integer.MAX_VALUE, size - position);
+		}
+
+		@Override
+		public void close() throws IOException {
+			window = null;
+			channel.close();
+		}
+
+		private boolean ensureWindow() throws IOException {
+			if (window != null && window.hasRemaining()) {
+				return true;
+			}
+
+			long start = window != null ? windowStart + window.capacity() : 0;
+			if (start >= size) {
+				return false;
+			}
+
+			window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(WINDOW_SIZE, size - start));
+			windowStart = start;
+			return true;
+		}
+	}
+}
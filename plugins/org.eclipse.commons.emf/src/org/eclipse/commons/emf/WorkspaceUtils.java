@@ -0,0 +1,241 @@
+package org.eclipse.commons.emf;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.resources.IContainer;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceRuleFactory;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.IWorkspaceRunnable;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.core.runtime.jobs.IJobManager;
+import org.eclipse.core.runtime.jobs.ISchedulingRule;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.jobs.MultiRule;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Utilities for coordinating with the Eclipse workspace.
+ *
+ * @author Niko Stotz
+ *
+ * @since 0.2
+ *
+ */
+public class WorkspaceUtils {
+	private static final Object[] BUILD_FAMILIES = { ResourcesPlugin.FAMILY_MANUAL_BUILD,
+			ResourcesPlugin.FAMILY_AUTO_BUILD };
+
+	private static final IWorkspaceRunnable NO_OP = monitor -> {
+		// only used as barrier
+	};
+
+	/**
+	 * Waits until the workspace is quiescent.
+	 *
+	 * <p>
+	 * The workspace is quiescent once no workspace operation is running, all
+	 * resource change events of finished operations have been broadcast, and
+	 * no manual or auto build is running or waiting. Sleeping builds, e.g.
+	 * periodic builds scheduled with a delay, are not waited for. This method
+	 * does not poll: It acquires the workspace root rule as barrier against
+	 * running operations, and {@linkplain IJobManager#join(Object,
+	 * org.eclipse.core.runtime.IProgressMonitor) joins} the build job
+	 * families. It returns as soon as the workspace is quiescent, which is
+	 * immediately if it already was.
+	 * </p>
+	 *
+	 * <p>
+	 * Typical use is to settle the workspace after modifying it, e.g. in
+	 * integration tests. This method must not be called inside a workspace
+	 * operation, while holding a scheduling rule, or from a build job.
+	 * </p>
+	 *
+	 * @param timeout
+	 *            Maximum time to wait.
+	 * @param unit
+	 *            Unit of {@code timeout}.
+	 * @return {@code true} if the workspace is quiescent; {@code false} if the
+	 *         timeout elapsed before.
+	 *
+	 * @throws CoreException
+	 *             If the workspace rejects the barrier operation.
+	 * @throws InterruptedException
+	 *             If the calling thread is interrupted while waiting.
+	 *
+	 * @since 0.2
+	 */
+	public static boolean waitForQuiescence(final long timeout, final @NonNull TimeUnit unit)
+			throws CoreException, InterruptedException {
+		IWorkspace workspace = ResourcesPlugin.getWorkspace();
+		IJobManager jobManager = Job.getJobManager();
+		DeadlineMonitor monitor = new DeadlineMonitor(System.nanoTime() + unit.toNanos(timeout));
+
+		try {
+			do {
+				// Ending the empty top-level operation broadcasts pending
+				// changes and schedules the auto build, if required.
+				workspace.run(NO_OP, workspace.getRoot(), 0, monitor);
+
+				for (Object family : BUILD_FAMILIES) {
+					jobManager.join(family, monitor);
+				}
+			} while (isBuilding(jobManager) && !monitor.isCanceled());
+		} catch (OperationCanceledException e) {
+			return false;
+		}
+
+		return !isBuilding(jobManager);
+	}
+
+	/**
+	 * Creates all missing files denoted by
+	 * {@linkplain org.eclipse.emf.common.util.URI Ecore URIs}, including their
+	 * missing parent folders, in one workspace operation.
+	 * 
+	 * <p>
+	 * Each URI is resolved like {@link UriUtils#toIResource(URI)}. URIs that are
+	 * not platform resources, or denote an existing resource, are skipped. For
+	 * all others, the missing parent folders are created top-down, and then the
+	 * empty files. Everything runs in one {@link IWorkspace#run(IWorkspaceRunnable,
+	 * ISchedulingRule, int, IProgressMonitor) workspace operation}, so the
+	 * workspace acquires the scheduling rule once and broadcasts one resource
+	 * change event for all of them. The rule combines the creation rules of the
+	 * topmost missing resources, i.e. it is no wider than required.
+	 * </p>
+	 * 
+	 * @param uris
+	 *            The Ecore URIs of the files to create.
+	 * @param monitor
+	 *            Progress monitor; may be {@code null}.
+	 * @return The created files, in the order of {@code uris}.
+	 * 
+	 * @throws CoreException
+	 *             If creating any folder or file fails, e.g. because its
+	 *             project is missing or closed.
+	 * @throws IllegalArgumentException
+	 *             If any of {@code uris} is seriously ill-formatted.
+	 * 
+	 * @since 0.2
+	 */
+	public static @NonNull List<IFile> createMissingFiles(final @NonNull Collection<@NonNull URI> uris,
+			final @Nullable IProgressMonitor monitor) throws CoreException {
+		Set<IFile> files = new LinkedHashSet<>();
+		for (URI uri : uris) {
+			IResource resource = UriUtils.toIResource(uri);
+			if (resource instanceof IFile && !resource.exists()) {
+				files.add((IFile) resource);
+			}
+		}
+		if (files.isEmpty()) {
+			return new ArrayList<>();
+		}
+
+		Set<IFolder> folders = new LinkedHashSet<>();
+		Set<IResource> topmost = new LinkedHashSet<>();
+		for (IFile file : files) {
+			IResource current = file;
+			for (IContainer parent = file.getParent(); parent instanceof IFolder
+					&& !parent.exists(); parent = parent.getParent()) {
+				if (!folders.add((IFolder) parent)) {
+					// this folder and its parents have been handled already
+					current = null;
+					break;
+				}
+				current = parent;
+			}
+			if (current != null) {
+				topmost.add(current);
+			}
+		}
+
+		IWorkspace workspace = ResourcesPlugin.getWorkspace();
+		ISchedulingRule rule = createRule(workspace.getRuleFactory(), topmost);
+
+		List<IFolder> sortedFolders = new ArrayList<>(folders);
+		sortedFolders.sort(Comparator.comparingInt(folder -> folder.getFullPath().segmentCount()));
+
+		workspace.run(progress -> {
+			SubMonitor subMonitor = SubMonitor.convert(progress, "Creating files",
+					sortedFolders.size() + files.size());
+			for (IFolder folder : sortedFolders) {
+				folder.create(false, true, subMonitor.split(1));
+			}
+			for (IFile file : files) {
+				file.create(new ByteArrayInputStream(new byte[0]), false, subMonitor.split(1));
+			}
+		}, rule, IWorkspace.AVOID_UPDATE, monitor);
+
+		return new ArrayList<>(files);
+	}
+
+	private static @Nullable ISchedulingRule createRule(final @NonNull IResourceRuleFactory ruleFactory,
+			final @NonNull Collection<IResource> resources) {
+		List<ISchedulingRule> rules = new ArrayList<>();
+		outer: for (IResource resource : resources) {
+			ISchedulingRule rule = ruleFactory.createRule(resource);
+			if (rule == null) {
+				continue;
+			}
+			for (int i = 0; i < rules.size(); i++) {
+				ISchedulingRule existing = rules.get(i);
+				if (existing.contains(rule)) {
+					continue outer;
+				}
+				if (rule.contains(existing)) {
+					rules.remove(i--);
+				}
+			}
+			rules.add(rule);
+		}
+		if (rules.isEmpty()) {
+			return null;
+		}
+		if (rules.size() == 1) {
+			return rules.get(0);
+		}
+		return MultiRule.combine(rules.toArray(new ISchedulingRule[rules.size()]));
+	}
+
+	private static boolean isBuilding(final @NonNull IJobManager jobManager) {
+		for (Object family : BUILD_FAMILIES) {
+			for (Job job : jobManager.find(family)) {
+				// join() does not wait for sleeping jobs either, so counting
+				// them would spin until the deadline
+				if (job.getState() != Job.SLEEPING) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private static final class DeadlineMonitor extends NullProgressMonitor {
+		private final long deadline;
+
+		DeadlineMonitor(final long deadline) {
+			this.deadline = deadline;
+		}
+
+		@Override
+		public boolean isCanceled() {
+			return super.isCanceled() || System.nanoTime() - deadline >= 0;
+		}
+	}
+}
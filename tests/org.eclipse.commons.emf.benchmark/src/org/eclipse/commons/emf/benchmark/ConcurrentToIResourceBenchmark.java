@@ -0,0 +1,115 @@
+package org.eclipse.commons.emf.benchmark;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.commons.emf.CachingUriResolver;
+import org.eclipse.commons.emf.UriUtils;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.emf.common.util.URI;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for concurrent use of {@link UriUtils#toIResource(URI)} and
+ * {@link CachingUriResolver#toIResource(URI)}.
+ *
+ * <p>
+ * Each resolution is measured on one thread and on all cores. JMH reports the
+ * summed throughput of all threads, so if the resolution serialized on a lock,
+ * the {@code *Parallel} benchmarks would not exceed their {@code *Sequential}
+ * counterparts.
+ * </p>
+ *
+ * @author Niko Stotz
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(0)
+@State(Scope.Benchmark)
+public class ConcurrentToIResourceBenchmark {
+	private static final int SAMPLES = 1024;
+
+	@Param({ "10000", "100000" })
+	public int size;
+
+	private WorkspaceFixture fixture;
+
+	private URI[] uris;
+
+	private CachingUriResolver resolver;
+
+	/**
+	 * Position of each thread within {@link ConcurrentToIResourceBenchmark#uris}.
+	 */
+	@State(Scope.Thread)
+	public static class Cursor {
+		private int next = 0;
+
+		int nextIndex() {
+			next = (next + 1) & (SAMPLES - 1);
+			return next;
+		}
+	}
+
+	@Setup(Level.Trial)
+	public void setUp() throws CoreException, IOException {
+		fixture = WorkspaceFixture.create(size);
+
+		Random random = new Random(size);
+		uris = new URI[SAMPLES];
+		for (int i = 0; i < SAMPLES; i++) {
+			int index = random.nextInt(size);
+			uris[i] = (i & 1) == 0 ? fixture.existingUri(index) : fixture.missingUri(index);
+		}
+
+		resolver = new CachingUriResolver();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws CoreException {
+		resolver.dispose();
+		fixture.dispose();
+	}
+
+	@Benchmark
+	@Threads(1)
+	public IResource toIResourceSequential(final Cursor cursor) {
+		return UriUtils.toIResource(uris[cursor.nextIndex()]);
+	}
+
+	@Benchmark
+	@Threads(Threads.MAX)
+	public IResource toIResourceParallel(final Cursor cursor) {
+		return UriUtils.toIResource(uris[cursor.nextIndex()]);
+	}
+
+	@Benchmark
+	@Threads(1)
+	public IResource resolverSequential(final Cursor cursor) {
+		return resolver.toIResource(uris[cursor.nextIndex()]);
+	}
+
+	@Benchmark
+	@Threads(Threads.MAX)
+	public IResource resolverParallel(final Cursor cursor) {
+		return resolver.toIResource(uris[cursor.nextIndex()]);
+	}
+}
@@ -0,0 +1,59 @@
+package org.eclipse.commons.emf.benchmark;
+
+import org.junit.Test;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs all benchmarks of this bundle inside a JUnit Plug-in Test launch, which
+ * provides the workspace.
+ *
+ * <p>
+ * JMH discovers benchmarks through its own class loader. Therefore this bundle
+ * is a fragment of the JMH bundle, and all benchmarks run unforked inside the
+ * launched OSGi runtime.
+ * </p>
+ *
+ * <p>
+ * The run reports throughput and, via {@link GCProfiler}, allocation rate. It
+ * can be configured with system properties:
+ * </p>
+ * <dl>
+ * <dt>{@code benchmark.include}</dt>
+ * <dd>Regular expression of benchmarks to run (default: all of this
+ * bundle).</dd>
+ * <dt>{@code benchmark.sizes}</dt>
+ * <dd>Comma-separated workspace fixture sizes (default: the sizes declared in
+ * the benchmark, 1k to 1M resources).</dd>
+ * <dt>{@code benchmark.result}</dt>
+ * <dd>File to write JSON results to, for comparing against a baseline (default:
+ * none).</dd>
+ * </dl>
+ *
+ * @author Niko Stotz
+ *
+ */
+public class RunBenchmarks {
+	@Test
+	public void run() throws Exception {
+		ChainedOptionsBuilder options = new OptionsBuilder()
+				.include(System.getProperty("benchmark.include", getClass().getPackage().getName() + ".*"))
+				.addProfiler(GCProfiler.class)
+				.shouldFailOnError(true);
+
+		String sizes = System.getProperty("benchmark.sizes");
+		if (sizes != null) {
+			options.param("size", sizes.split(","));
+		}
+
+		String result = System.getProperty("benchmark.result");
+		if (result != null) {
+			options.result(result).resultFormat(ResultFormatType.JSON);
+		}
+
+		new Runner(options.build()).run();
+	}
+}
@@ -0,0 +1,152 @@
+package org.eclipse.commons.emf.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.commons.emf.UriUtils;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.emf.common.util.URI;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for {@link UriUtils#toIResource(URI)},
+ * {@link UriUtils#toIResources(java.util.Collection)}, and
+ * {@link UriUtils#toPath(URI)}.
+ *
+ * <p>
+ * The benchmarks must run inside the running workspace, therefore they cannot
+ * be forked.
+ * </p>
+ *
+ * @author Niko Stotz
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(0)
+@State(Scope.Benchmark)
+public class ToIResourceBenchmark {
+	private static final int SAMPLES = 1024;
+
+	@Param({ "1000", "10000", "100000", "1000000" })
+	public int size;
+
+	private WorkspaceFixture fixture;
+
+	private URI[] existing;
+
+	private URI[] missing;
+
+	private URI[] slashesExcess;
+
+	private URI deep;
+
+	private URI encoded;
+
+	private URI other;
+
+	private List<URI> batch;
+
+	private int next = 0;
+
+	@Setup(Level.Trial)
+	public void setUp() throws CoreException, IOException {
+		fixture = WorkspaceFixture.create(size);
+
+		Random random = new Random(size);
+		existing = new URI[SAMPLES];
+		missing = new URI[SAMPLES];
+		slashesExcess = new URI[SAMPLES];
+		for (int i = 0; i < SAMPLES; i++) {
+			int index = random.nextInt(size);
+			existing[i] = fixture.existingUri(index);
+			missing[i] = fixture.missingUri(index);
+			slashesExcess[i] = fixture.slashesExcessUri(index);
+		}
+
+		deep = fixture.deepUri();
+		encoded = fixture.encodedUri();
+		other = URI.createFileURI("/tmp/" + WorkspaceFixture.PROJECT_NAME + "/file0.xmi");
+
+		batch = new ArrayList<>(2 * SAMPLES);
+		for (int i = 0; i < SAMPLES; i++) {
+			batch.add(existing[i]);
+			batch.add(missing[i]);
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws CoreException {
+		fixture.dispose();
+	}
+
+	private int nextIndex() {
+		next = (next + 1) & (SAMPLES - 1);
+		return next;
+	}
+
+	@Benchmark
+	public IResource fileExisting() {
+		return UriUtils.toIResource(existing[nextIndex()]);
+	}
+
+	@Benchmark
+	public IResource fileMissing() {
+		return UriUtils.toIResource(missing[nextIndex()]);
+	}
+
+	@Benchmark
+	public IResource fileNested() {
+		return UriUtils.toIResource(deep);
+	}
+
+	@Benchmark
+	public IResource fileSlashesExcess() {
+		return UriUtils.toIResource(slashesExcess[nextIndex()]);
+	}
+
+	@Benchmark
+	public IResource fileEncoded() {
+		return UriUtils.toIResource(encoded);
+	}
+
+	@Benchmark
+	public IPath pathExisting() {
+		return UriUtils.toPath(existing[nextIndex()]);
+	}
+
+	@Benchmark
+	public IPath pathEncoded() {
+		return UriUtils.toPath(encoded);
+	}
+
+	@Benchmark
+	public IResource uriOther() {
+		return UriUtils.toIResource(other);
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.SECONDS)
+	public List<IResource> batch() {
+		return UriUtils.toIResources(batch);
+	}
+}
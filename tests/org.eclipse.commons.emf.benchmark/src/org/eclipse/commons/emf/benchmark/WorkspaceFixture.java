@@ -0,0 +1,130 @@
+package org.eclipse.commons.emf.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.jdt.annotation.NonNull;
+
+/**
+ * Headless workspace content of configurable size for benchmarks.
+ *
+ * <p>
+ * The fixture creates one project containing {@code size} empty files, spread
+ * over folders of {@link #FILES_PER_FOLDER} files each. Additionally, it
+ * contains a chain of {@link #DEPTH} nested folders and a file with a name that
+ * requires percent-encoding.
+ * </p>
+ *
+ * <p>
+ * The files are written directly to the file system and picked up by a single
+ * refresh, as creating up to a million files through the workspace API would
+ * dominate the benchmark run time.
+ * </p>
+ *
+ * @author Niko Stotz
+ *
+ */
+public class WorkspaceFixture {
+	public static final String PROJECT_NAME = "benchmark";
+
+	public static final int FILES_PER_FOLDER = 100;
+
+	public static final int DEPTH = 32;
+
+	private static final String ENCODED_FOLDER = "with space";
+
+	private static final String ENCODED_FILE = "100% sure.xmi";
+
+	private final IProject project;
+
+	private final int size;
+
+	private WorkspaceFixture(final @NonNull IProject project, final int size) {
+		this.project = project;
+		this.size = size;
+	}
+
+	public static @NonNull WorkspaceFixture create(final int size) throws CoreException, IOException {
+		IProject project = ResourcesPlugin.getWorkspace().getRoot().getProject(PROJECT_NAME);
+		if (project.exists()) {
+			project.delete(true, true, null);
+		}
+		project.create(null);
+		project.open(null);
+
+		java.nio.file.Path location = project.getLocation().toFile().toPath();
+		for (int i = 0; i < size; i++) {
+			java.nio.file.Path folder = location.resolve(folderName(i));
+			if (i % FILES_PER_FOLDER == 0) {
+				Files.createDirectories(folder);
+			}
+			Files.createFile(folder.resolve(fileName(i)));
+		}
+
+		java.nio.file.Path deep = location.resolve(deepPath());
+		Files.createDirectories(deep.getParent());
+		Files.createFile(deep);
+
+		java.nio.file.Path encoded = location.resolve(ENCODED_FOLDER).resolve(ENCODED_FILE);
+		Files.createDirectories(encoded.getParent());
+		Files.createFile(encoded);
+
+		project.refreshLocal(IResource.DEPTH_INFINITE, null);
+
+		return new WorkspaceFixture(project, size);
+	}
+
+	public int getSize() {
+		return size;
+	}
+
+	public @NonNull URI existingUri(final int index) {
+		return createUri(folderName(index) + "/" + fileName(index));
+	}
+
+	public @NonNull URI missingUri(final int index) {
+		return createUri(folderName(index) + "/missing" + index + ".xmi");
+	}
+
+	public @NonNull URI deepUri() {
+		return createUri(deepPath());
+	}
+
+	public @NonNull URI slashesExcessUri(final int index) {
+		return URI.createPlatformResourceURI("////" + PROJECT_NAME + "///" + folderName(index) + "//" + fileName(index) + "//",
+				true);
+	}
+
+	public @NonNull URI encodedUri() {
+		return createUri(ENCODED_FOLDER + "/" + ENCODED_FILE);
+	}
+
+	public void dispose() throws CoreException {
+		project.delete(true, true, null);
+	}
+
+	private static @NonNull URI createUri(final @NonNull String relativePath) {
+		return URI.createPlatformResourceURI("/" + PROJECT_NAME + "/" + relativePath, true);
+	}
+
+	private static @NonNull String folderName(final int index) {
+		return "folder" + (index / FILES_PER_FOLDER);
+	}
+
+	private static @NonNull String fileName(final int index) {
+		return "file" + index + ".xmi";
+	}
+
+	private static @NonNull String deepPath() {
+		StringBuilder result = new StringBuilder();
+		for (int i = 0; i < DEPTH; i++) {
+			result.append("deep").append(i).append('/');
+		}
+		return result.append("deep.xmi").toString();
+	}
+}
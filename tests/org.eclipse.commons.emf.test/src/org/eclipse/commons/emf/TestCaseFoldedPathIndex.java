@@ -0,0 +1,218 @@
+package org.eclipse.commons.emf;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import org.apache.commons.io.input.NullInputStream;
+import org.eclipse.commons.emf.uriutils.ATestWorkspace;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.ISavedState;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.ISafeRunnable;
+import org.eclipse.core.runtime.Path;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test cases for saving and restoring {@link CaseFoldedPathIndex}.
+ *
+ * <p>
+ * Lives in the package of the index, as it exercises package-private API.
+ * </p>
+ *
+ * @author Niko Stotz
+ *
+ */
+public class TestCaseFoldedPathIndex extends ATestWorkspace {
+	private File file;
+
+	private CaseFoldedPathIndex index;
+
+	@Before
+	public void saveIndex() throws Exception {
+		waitForWorkspaceChanges(() -> {
+			project.getFile("a.ext").create(new NullInputStream(0), true, null);
+			project.getFolder("folder").create(true, true, null);
+			project.getFile("folder/b.ext").create(new NullInputStream(0), true, null);
+		});
+
+		file = File.createTempFile("caseFoldedPaths-", null);
+		CaseFoldedPathIndex saved = new CaseFoldedPathIndex();
+		try {
+			saved.findResource(new Path("/myProject"));
+			assertTrue(saved.save(file));
+		} finally {
+			saved.dispose();
+		}
+
+		index = new CaseFoldedPathIndex();
+	}
+
+	@After
+	public void dispose() {
+		if (index != null) {
+			index.dispose();
+		}
+		if (file != null) {
+			file.delete();
+		}
+	}
+
+	@Test
+	public void roundTrip() throws Exception {
+		index.restore(file, savedState(() -> {
+			project.getFile("a.ext").delete(true, null);
+			project.getFile("c.ext").create(new NullInputStream(0), true, null);
+		}));
+
+		assertTrue(index.isBuilt());
+		assertEquals("/myProject/folder/b.ext", find("/MYPROJECT/Folder/B.EXT"));
+		assertEquals("/myProject/c.ext", find("/myproject/C.EXT"));
+		// Unknown segments keep their spelling
+		assertEquals("/myProject/A.EXT", find("/myproject/A.EXT"));
+	}
+
+	@Test
+	public void queuedLiveChanges() throws Exception {
+		assertTrue(index.beginRestore());
+		try {
+			waitForWorkspaceChanges(() -> project.getFile("d.ext").create(new NullInputStream(0), true, null));
+
+			index.restore(file, savedState(() -> project.getFile("a.ext").delete(true, null)));
+		} finally {
+			index.endRestore();
+		}
+
+		assertTrue(index.isBuilt());
+		assertEquals("/myProject/d.ext", find("/myproject/D.EXT"));
+		assertEquals("/myProject/A.EXT", find("/myproject/A.EXT"));
+	}
+
+	@Test
+	public void changedWhileBuilding() throws Exception {
+		IFolder many = project.getFolder("many");
+		waitForWorkspaceChanges(() -> {
+			many.create(true, true, null);
+			for (int i = 0; i < 2000; i++) {
+				many.getFile("file" + i).create(new NullInputStream(0), true, null);
+			}
+		});
+
+		Thread builder = new Thread(() -> index.findResource(new Path("/myProject")));
+		builder.start();
+		int changed = 0;
+		for (; (builder.isAlive() || changed == 0) && changed < 1999; changed++) {
+			many.getFile("file" + changed).delete(true, null);
+			many.getFile("new" + changed).create(new NullInputStream(0), true, null);
+		}
+		builder.join();
+
+		assertTrue(index.isBuilt());
+		for (int i = 0; i < changed; i++) {
+			assertEquals("/myProject/many/FILE" + i, find("/myproject/MANY/FILE" + i));
+			assertEquals("/myProject/many/new" + i, find("/myproject/MANY/NEW" + i));
+		}
+		assertEquals("/myProject/many/file" + changed, find("/myproject/MANY/FILE" + changed));
+	}
+
+	@Test
+	public void hiddenMembers() throws Exception {
+		waitForWorkspaceChanges(() -> project.getFile("a.ext").setHidden(true));
+		find("/myproject");
+
+		waitForWorkspaceChanges(
+				() -> project.getFile("hidden.ext").create(new NullInputStream(0), IResource.HIDDEN, null));
+
+		assertEquals("/myProject/a.ext", find("/myproject/A.EXT"));
+		assertEquals("/myProject/hidden.ext", find("/myproject/HIDDEN.EXT"));
+	}
+
+	@Test
+	public void missingDelta() throws Exception {
+		ISavedState withoutDelta = new TestSavedState() {
+			@Override
+			public void processResourceChangeEvents(final IResourceChangeListener listener) {
+				// Trees of the last session are gone
+			}
+		};
+
+		assertNotRestored(withoutDelta);
+	}
+
+	@Test
+	public void missingSavedState() throws Exception {
+		assertNotRestored(null);
+	}
+
+	@Test
+	public void corruptFile() throws Exception {
+		try (RandomAccessFile truncated = new RandomAccessFile(file, "rw")) {
+			truncated.setLength(truncated.length() / 2);
+		}
+
+		assertNotRestored(savedState(() -> {
+		}));
+	}
+
+	private void assertNotRestored(final ISavedState savedState) {
+		try {
+			index.restore(file, savedState);
+			fail();
+		} catch (IOException e) {
+			assertFalse(index.isBuilt());
+		}
+	}
+
+	private String find(final String path) {
+		return index.findResource(new Path(path)).getFullPath().toString();
+	}
+
+	/**
+	 * @return A saved state delivering the changes of {@code changes} as
+	 *         saved-state delta.
+	 */
+	private ISavedState savedState(final ISafeRunnable changes) {
+		return new TestSavedState() {
+			@Override
+			public void processResourceChangeEvents(final IResourceChangeListener listener) {
+				ResourcesPlugin.getWorkspace().addResourceChangeListener(listener, IResourceChangeEvent.POST_CHANGE);
+				try {
+					waitForWorkspaceChanges(changes);
+				} catch (Exception e) {
+					throw new IllegalStateException(e);
+				} finally {
+					ResourcesPlugin.getWorkspace().removeResourceChangeListener(listener);
+				}
+			}
+		};
+	}
+
+	private static abstract class TestSavedState implements ISavedState {
+		@Override
+		public int getSaveNumber() {
+			return 1;
+		}
+
+		@Override
+		public IPath lookup(final IPath file) {
+			return null;
+		}
+
+		@Override
+		public IPath[] getFiles() {
+			return new IPath[0];
+		}
+	}
+
+}
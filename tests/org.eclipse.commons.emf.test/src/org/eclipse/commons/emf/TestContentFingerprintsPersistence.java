@@ -0,0 +1,103 @@
+package org.eclipse.commons.emf;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+
+import org.eclipse.commons.emf.uriutils.ATestWorkspace;
+import org.eclipse.core.resources.IFile;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test cases for saving and restoring {@link ContentFingerprints}.
+ *
+ * <p>
+ * Lives in the package of the fingerprints, as it exercises package-private
+ * API.
+ * </p>
+ *
+ * @author Niko Stotz
+ *
+ */
+public class TestContentFingerprintsPersistence extends ATestWorkspace {
+	private final ContentFingerprints fingerprints = ContentFingerprints.getInstance();
+
+	private File file;
+
+	@Before
+	public void createFile() throws Exception {
+		fingerprints.clear();
+		file = File.createTempFile("contentFingerprints-", null);
+	}
+
+	@After
+	public void deleteFile() {
+		fingerprints.clear();
+		file.delete();
+	}
+
+	@Test
+	public void restoredNotRead() throws Exception {
+		IFile myFile = createFile("myFile.ext", "content");
+		fingerprints.getFingerprint(myFile);
+		assertTrue(fingerprints.save(file));
+		fingerprints.clear();
+
+		// Change the file behind the back of the workspace, keeping its time stamp
+		File local = myFile.getLocation().toFile();
+		long lastModified = local.lastModified();
+		Files.write(local.toPath(), "other".getBytes(StandardCharsets.UTF_8));
+		local.setLastModified(lastModified);
+
+		fingerprints.restore(file);
+
+		assertArrayEquals(expected("content"), fingerprints.getFingerprint(myFile));
+	}
+
+	@Test
+	public void deletedFolderNotSaved() throws Exception {
+		fingerprints.getFingerprint(createFile("a.ext", "a"));
+		waitForWorkspaceChanges(() -> project.getFolder("folder").create(true, true, null));
+		fingerprints.getFingerprint(createFile("folder/b.ext", "b"));
+
+		waitForWorkspaceChanges(() -> project.getFolder("folder").delete(true, null));
+
+		assertTrue(fingerprints.save(file));
+		String saved = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+		assertTrue(saved.contains("/myProject/a.ext"));
+		assertFalse(saved.contains("/myProject/folder/b.ext"));
+	}
+
+	@Test
+	public void deletedBetweenSessionsDropped() throws Exception {
+		fingerprints.getFingerprint(createFile("a.ext", "a"));
+		assertTrue(fingerprints.save(file));
+		fingerprints.clear();
+
+		waitForWorkspaceChanges(() -> project.getFile("a.ext").delete(true, null));
+		fingerprints.restore(file);
+
+		assertFalse(fingerprints.save(file));
+	}
+
+	private IFile createFile(final String path, final String content) throws Exception {
+		IFile result = project.getFile(path);
+		waitForWorkspaceChanges(() -> result
+				.create(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), true, null));
+		return result;
+	}
+
+	private static byte[] expected(final String content) throws Exception {
+		return MessageDigest.getInstance(ContentFingerprints.ALGORITHM)
+				.digest(content.getBytes(StandardCharsets.UTF_8));
+	}
+
+}
@@ -0,0 +1,183 @@
+package org.eclipse.commons.emf;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test cases for {@link PathTrie}.
+ *
+ * <p>
+ * Lives in the package of the trie, as it exercises package-private API.
+ * </p>
+ *
+ * @author Niko Stotz
+ *
+ */
+public class TestPathTrie {
+	private PathTrie<String> trie;
+
+	@Before
+	public void createTrie() {
+		trie = new PathTrie<>();
+		trie.put(new Path("/project"), "project");
+		trie.put(new Path("/project/folder"), "folder");
+		trie.put(new Path("/project/folder/a.ext"), "a");
+		trie.put(new Path("/project/folder/b.ext"), "b");
+		trie.put(new Path("/other/deep/c.ext"), "c");
+	}
+
+	@Test
+	public void get() throws Exception {
+		assertEquals("a", trie.get(new Path("/project/folder/a.ext")));
+		assertEquals("a", trie.get(new Path("project/folder/a.ext/")));
+		assertNull(trie.get(new Path("/other/deep")));
+		assertNull(trie.get(new Path("/project/folder/missing.ext")));
+		assertNull(trie.get(Path.ROOT));
+		assertEquals(5, trie.size());
+	}
+
+	@Test
+	public void put() throws Exception {
+		assertEquals("a", trie.put(new Path("/project/folder/a.ext"), "a2"));
+		assertNull(trie.put(Path.ROOT, "root"));
+
+		assertEquals("a2", trie.get(new Path("/project/folder/a.ext")));
+		assertEquals("root", trie.get(Path.ROOT));
+		assertEquals(6, trie.size());
+	}
+
+	@Test
+	public void removeKeepsChildren() throws Exception {
+		assertEquals("folder", trie.remove(new Path("/project/folder")));
+		assertNull(trie.remove(new Path("/project/folder")));
+
+		assertNull(trie.get(new Path("/project/folder")));
+		assertEquals("a", trie.get(new Path("/project/folder/a.ext")));
+		assertEquals(4, trie.size());
+	}
+
+	@Test
+	public void removePrunes() throws Exception {
+		assertEquals("c", trie.remove(new Path("/other/deep/c.ext")));
+
+		assertNull(trie.get(new Path("/other/deep/c.ext")));
+		assertEquals(4, trie.size());
+		assertEquals(Arrays.asList("/project", "/project/folder", "/project/folder/a.ext", "/project/folder/b.ext"),
+				paths());
+
+		// The pruned nodes are recreated on demand
+		assertNull(trie.put(new Path("/other/deep/c.ext"), "c2"));
+		assertEquals("c2", trie.get(new Path("/other/deep/c.ext")));
+		assertEquals(5, trie.size());
+	}
+
+	@Test
+	public void removeMissing() throws Exception {
+		assertNull(trie.remove(new Path("/other/deep")));
+		assertNull(trie.remove(new Path("/missing/deep")));
+
+		assertEquals("c", trie.get(new Path("/other/deep/c.ext")));
+		assertEquals(5, trie.size());
+	}
+
+	@Test
+	public void removeSubtree() throws Exception {
+		assertEquals(3, trie.removeSubtree(new Path("/project/folder")));
+		assertEquals(0, trie.removeSubtree(new Path("/project/folder")));
+
+		assertNull(trie.get(new Path("/project/folder/a.ext")));
+		assertEquals("project", trie.get(new Path("/project")));
+		assertEquals(2, trie.size());
+	}
+
+	@Test
+	public void removeSubtreePrunes() throws Exception {
+		assertEquals(1, trie.removeSubtree(new Path("/other/deep")));
+
+		assertEquals(0, trie.removeSubtree(new Path("/other")));
+		assertEquals(4, trie.size());
+		assertEquals(Arrays.asList("/project", "/project/folder", "/project/folder/a.ext", "/project/folder/b.ext"),
+				paths());
+
+		assertNull(trie.put(new Path("/other"), "other"));
+		assertEquals("other", trie.get(new Path("/other")));
+		assertNull(trie.get(new Path("/other/deep/c.ext")));
+	}
+
+	@Test
+	public void removeSubtreeRoot() throws Exception {
+		assertEquals(5, trie.removeSubtree(Path.ROOT));
+
+		assertEquals(0, trie.size());
+		assertNull(trie.get(new Path("/project")));
+		assertTrue(paths().isEmpty());
+
+		assertNull(trie.put(new Path("/project/folder/a.ext"), "a2"));
+		assertEquals("a2", trie.get(new Path("/project/folder/a.ext")));
+		assertEquals(1, trie.size());
+	}
+
+	@Test
+	public void forEach() throws Exception {
+		List<String> visited = new ArrayList<>();
+		trie.forEach((path, value) -> visited.add(path + "=" + value));
+
+		assertEquals(Arrays.asList("/other/deep/c.ext=c", "/project=project", "/project/folder=folder",
+				"/project/folder/a.ext=a", "/project/folder/b.ext=b"), visited);
+	}
+
+	@Test
+	public void growAndShrink() throws Exception {
+		IPath parent = new Path("/project/many");
+		for (int i = 999; i >= 0; i--) {
+			trie.put(parent.append("file" + i), "file" + i);
+		}
+		for (int i = 0; i < 1000; i++) {
+			assertEquals("file" + i, trie.get(parent.append("file" + i)));
+		}
+
+		// Shrinks the children array several times
+		for (int i = 0; i < 990; i++) {
+			assertEquals("file" + i, trie.remove(parent.append("file" + i)));
+			assertNull(trie.get(parent.append("file" + i)));
+		}
+
+		for (int i = 990; i < 1000; i++) {
+			assertEquals("file" + i, trie.get(parent.append("file" + i)));
+		}
+		assertEquals(15, trie.size());
+
+		// Grows the shrunk array again
+		for (int i = 0; i < 990; i += 2) {
+			trie.put(parent.append("file" + i), "file" + i);
+		}
+		List<String> remaining = new ArrayList<>();
+		trie.forEach((path, value) -> {
+			if (parent.isPrefixOf(path)) {
+				remaining.add(value);
+			}
+		});
+		assertEquals(505, remaining.size());
+		List<String> sorted = new ArrayList<>(remaining);
+		sorted.sort(null);
+		assertEquals(sorted, remaining);
+		assertEquals(510, trie.size());
+	}
+
+	private List<String> paths() {
+		List<String> result = new ArrayList<>();
+		trie.forEach((path, value) -> result.add(path.toString()));
+		return result;
+	}
+
+}
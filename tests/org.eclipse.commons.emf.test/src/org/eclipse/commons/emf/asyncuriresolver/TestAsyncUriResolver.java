@@ -0,0 +1,141 @@
+package org.eclipse.commons.emf.asyncuriresolver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.commons.io.input.NullInputStream;
+import org.eclipse.commons.emf.AsyncUriResolver;
+import org.eclipse.commons.emf.UriUtils;
+import org.eclipse.commons.emf.uriutils.ATestWorkspace;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.emf.common.util.URI;
+import org.junit.Test;
+
+/**
+ * Test cases for {@link AsyncUriResolver}.
+ *
+ * @author Niko Stotz
+ *
+ */
+public class TestAsyncUriResolver extends ATestWorkspace {
+	private final List<Runnable> tasks = new ArrayList<>();
+
+	@Test
+	public void sameAsSynchronous() throws Exception {
+		waitForWorkspaceChanges(() -> {
+			project.getFile("myFile.ext").create(new NullInputStream(0), true, null);
+		});
+		AsyncUriResolver resolver = new AsyncUriResolver();
+
+		for (String path : new String[] { "/myProject", "/myProject/myFile.ext", "/myProject/missing.ext", "/" }) {
+			URI uri = URI.createPlatformResourceURI(path, true);
+			assertEquals(UriUtils.toIResource(uri), resolver.toIResource(uri).get(60, TimeUnit.SECONDS));
+		}
+	}
+
+	@Test
+	public void defaultExecutor() throws Exception {
+		AsyncUriResolver resolver = new AsyncUriResolver();
+
+		Method isVirtual;
+		try {
+			isVirtual = Thread.class.getMethod("isVirtual");
+		} catch (NoSuchMethodException e) {
+			assertTrue(resolver.getExecutor() instanceof ThreadPoolExecutor);
+			assertEquals(Runtime.getRuntime().availableProcessors(),
+					((ThreadPoolExecutor) resolver.getExecutor()).getMaximumPoolSize());
+			return;
+		}
+
+		CompletableFuture<Thread> thread = CompletableFuture.supplyAsync(Thread::currentThread,
+				resolver.getExecutor());
+		assertEquals(!(resolver.getExecutor() instanceof ThreadPoolExecutor),
+				isVirtual.invoke(thread.get(60, TimeUnit.SECONDS)));
+	}
+
+	@Test
+	public void other() throws Exception {
+		CompletableFuture<IResource> future = new AsyncUriResolver(tasks::add)
+				.toIResource(URI.createURI("https://example.com/MyFile.ext"));
+
+		assertTrue(future.isDone());
+		assertNull(future.get());
+		assertTrue(tasks.isEmpty());
+	}
+
+	@Test
+	public void coalesced() throws Exception {
+		AsyncUriResolver resolver = new AsyncUriResolver(tasks::add);
+
+		CompletableFuture<IResource> first = resolver
+				.toIResource(URI.createPlatformResourceURI("/myProject/myFile.ext", true));
+		CompletableFuture<IResource> second = resolver
+				.toIResource(URI.createPlatformResourceURI("//myProject//myFile.ext", true));
+		assertEquals(1, tasks.size());
+
+		first.cancel(true);
+		tasks.get(0).run();
+
+		assertTrue(first.isCancelled());
+		assertEquals(project.getFile("myFile.ext"), second.get());
+
+		resolver.toIResource(URI.createPlatformResourceURI("/myProject/myFile.ext", true));
+		assertEquals(2, tasks.size());
+	}
+
+	@Test
+	public void timeout() throws Exception {
+		AsyncUriResolver resolver = new AsyncUriResolver(tasks::add);
+		URI uri = URI.createPlatformResourceURI("/myProject/myFile.ext", true);
+
+		CompletableFuture<IResource> timed = resolver.toIResource(uri, 100, TimeUnit.MILLISECONDS);
+		CompletableFuture<IResource> untimed = resolver.toIResource(uri);
+		try {
+			timed.get(60, TimeUnit.SECONDS);
+			fail();
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof TimeoutException);
+		}
+
+		assertFalse(untimed.isDone());
+		tasks.get(0).run();
+		assertEquals(project.getFile("myFile.ext"), untimed.get());
+	}
+
+	@Test
+	public void batch() throws Exception {
+		List<URI> uris = Arrays.asList(URI.createPlatformResourceURI("/myProject", true),
+				URI.createURI("https://example.com/MyFile.ext"),
+				URI.createPlatformResourceURI("/myProject/missing.ext", true));
+
+		List<IResource> result = new AsyncUriResolver().toIResources(uris).get(60, TimeUnit.SECONDS);
+
+		assertEquals(Arrays.asList(project, null, project.getFile("missing.ext")), result);
+	}
+
+	@Test
+	public void illFormatted() throws Exception {
+		CompletableFuture<IResource> future = new AsyncUriResolver()
+				.toIResource(URI.createURI("platform:/resource/...////"));
+		try {
+			future.get(60, TimeUnit.SECONDS);
+			fail();
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof IllegalArgumentException);
+		}
+	}
+
+}
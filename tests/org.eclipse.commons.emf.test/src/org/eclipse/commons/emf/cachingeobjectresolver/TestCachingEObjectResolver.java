@@ -0,0 +1,271 @@
+package org.eclipse.commons.emf.cachingeobjectresolver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import org.apache.commons.io.input.NullInputStream;
+import org.eclipse.commons.emf.CachingEObjectResolver;
+import org.eclipse.commons.emf.uriutils.ATestWorkspace;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test cases for {@link CachingEObjectResolver}.
+ *
+ * @author Niko Stotz
+ *
+ */
+public class TestCachingEObjectResolver extends ATestWorkspace {
+	private CachingEObjectResolver resolver;
+
+	@Before
+	public void createResolver() {
+		resolver = new CachingEObjectResolver(new ResourceSetImpl(), 2);
+	}
+
+	@After
+	public void disposeResolver() {
+		resolver.dispose();
+	}
+
+	@Test
+	public void fragment() throws Exception {
+		URI uri = saveModel("model.ecore", "MyClass");
+
+		EObject eObject = resolver.toEObject(uri.appendFragment("//MyClass"));
+
+		assertTrue(eObject instanceof EClass);
+		assertEquals("MyClass", ((EClass) eObject).getName());
+	}
+
+	@Test
+	public void noFragment() throws Exception {
+		URI uri = saveModel("model.ecore", "MyClass");
+
+		EObject eObject = resolver.toEObject(uri);
+
+		assertTrue(eObject instanceof EPackage);
+	}
+
+	@Test
+	public void fragmentMissing() throws Exception {
+		URI uri = saveModel("model.ecore", "MyClass");
+
+		assertNull(resolver.toEObject(uri.appendFragment("//Missing")));
+	}
+
+	@Test
+	public void fileMissing() throws Exception {
+		URI uri = URI.createPlatformResourceURI("/myProject/missing.ecore", true);
+
+		assertNull(resolver.toEObject(uri.appendFragment("//MyClass")));
+		assertEquals(0, resolver.size());
+	}
+
+	@Test
+	public void fileBroken() throws Exception {
+		waitForWorkspaceChanges(() -> {
+			project.getFile("broken.ecore").create(new NullInputStream(3), true, null);
+		});
+		URI uri = URI.createPlatformResourceURI("/myProject/broken.ecore", true);
+
+		assertNull(resolver.toEObject(uri.appendFragment("//MyClass")));
+		assertEquals(0, resolver.size());
+		assertTrue(resolver.getResourceSet().getResources().isEmpty());
+	}
+
+	@Test
+	public void other() throws Exception {
+		URI uri = URI.createURI("https://example.com/model.ecore#//MyClass");
+
+		assertNull(resolver.toEObject(uri));
+	}
+
+	@Test
+	public void cached() throws Exception {
+		URI uri = saveModel("model.ecore", "MyClass");
+
+		EObject first = resolver.toEObject(uri.appendFragment("//MyClass"));
+		EObject second = resolver.toEObject(uri.appendFragment("//MyClass"));
+
+		assertSame(first, second);
+		assertEquals(1, resolver.size());
+	}
+
+	@Test
+	public void bounded() throws Exception {
+		URI first = saveModel("first.ecore", "A");
+		URI second = saveModel("second.ecore", "B");
+		URI third = saveModel("third.ecore", "C");
+
+		EObject a = resolver.toEObject(first.appendFragment("//A"));
+		resolver.toEObject(second.appendFragment("//B"));
+		resolver.toEObject(third.appendFragment("//C"));
+
+		assertEquals(2, resolver.size());
+		assertEquals(2, resolver.getResourceSet().getResources().size());
+		assertTrue(a.eIsProxy());
+	}
+
+	@Test
+	public void evictedOnChange() throws Exception {
+		URI uri = saveModel("model.ecore", "MyClass");
+		EObject before = resolver.toEObject(uri.appendFragment("//MyClass"));
+
+		saveModel("model.ecore", "MyClass");
+
+		EObject after = resolver.toEObject(uri.appendFragment("//MyClass"));
+		assertTrue(before.eIsProxy());
+		assertNotSame(before, after);
+		assertEquals(1, resolver.size());
+	}
+
+	@Test
+	public void evictedOnRemove() throws Exception {
+		URI uri = saveModel("model.ecore", "MyClass");
+		resolver.toEObject(uri.appendFragment("//MyClass"));
+
+		waitForWorkspaceChanges(() -> {
+			project.getFile("model.ecore").delete(true, null);
+		});
+
+		assertEquals(0, resolver.size());
+		assertNull(resolver.toEObject(uri.appendFragment("//MyClass")));
+	}
+
+	@Test
+	public void indirectUnloadedWithOwner() throws Exception {
+		URI base = saveModel("base.ecore", "Base");
+		URI derived = saveDerivedModel("derived.ecore", base);
+		URI second = saveModel("second.ecore", "B");
+		URI third = saveModel("third.ecore", "C");
+
+		EClass eClass = (EClass) resolver.toEObject(derived.appendFragment("//Derived"));
+		// Loads base.ecore outside the resolver; attributed to the next request
+		EClass superType = eClass.getESuperTypes().get(0);
+		assertFalse(superType.eIsProxy());
+		resolver.toEObject(second.appendFragment("//B"));
+		assertEquals(3, resolver.getResourceSet().getResources().size());
+
+		resolver.toEObject(third.appendFragment("//C"));
+		resolver.toEObject(derived.appendFragment("//Derived"));
+
+		assertEquals(2, resolver.size());
+		assertEquals(2, resolver.getResourceSet().getResources().size());
+		assertTrue(superType.eIsProxy());
+		assertNull(resolver.getResourceSet().getResource(base, false));
+	}
+
+	@Test
+	public void indirectChangeEvictsOwner() throws Exception {
+		URI base = saveModel("base.ecore", "Base");
+		URI derived = saveDerivedModel("derived.ecore", base);
+
+		EClass before = (EClass) resolver.toEObject(derived.appendFragment("//Derived"));
+		before.getESuperTypes().get(0);
+		resolver.toEObject(derived.appendFragment("//Derived"));
+
+		saveModel("base.ecore", "Base");
+
+		assertEquals(0, resolver.size());
+		EObject after = resolver.toEObject(derived.appendFragment("//Derived"));
+		assertTrue(before.eIsProxy());
+		assertNotSame(before, after);
+	}
+
+	@Test(timeout = 60000)
+	public void changedWhileLoading() throws Exception {
+		URI uri = saveModel("model.ecore", "MyClass");
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch changed = new CountDownLatch(1);
+		resolver.dispose();
+		resolver = new CachingEObjectResolver(new ResourceSetImpl() {
+			@Override
+			protected void demandLoad(final Resource resource) throws IOException {
+				loading.countDown();
+				try {
+					changed.await();
+				} catch (InterruptedException e) {
+					throw new IOException(e);
+				}
+				super.demandLoad(resource);
+			}
+		}, 2);
+
+		CompletableFuture<EObject> first = CompletableFuture.supplyAsync(() -> resolver.toEObject(uri));
+		loading.await();
+		// Would deadlock if workspace notifications waited for the load
+		saveModel("model.ecore", "Other");
+		changed.countDown();
+
+		EObject loaded = first.get();
+		assertNotNull(loaded);
+		assertFalse(loaded.eIsProxy());
+		assertEquals(0, resolver.size());
+
+		EObject reloaded = resolver.toEObject(uri);
+		assertNotSame(loaded, reloaded);
+		assertTrue(loaded.eIsProxy());
+		assertEquals(1, resolver.size());
+	}
+
+	private URI saveDerivedModel(final String fileName, final URI base) throws Exception {
+		URI uri = URI.createPlatformResourceURI("/myProject/" + fileName, true);
+
+		waitForWorkspaceChanges(() -> {
+			ResourceSet resourceSet = new ResourceSetImpl();
+			EClass superType = (EClass) resourceSet.getEObject(base.appendFragment("//Base"), true);
+
+			EPackage ePackage = EcoreFactory.eINSTANCE.createEPackage();
+			ePackage.setName("derivedPackage");
+			EClass eClass = EcoreFactory.eINSTANCE.createEClass();
+			eClass.setName("Derived");
+			eClass.getESuperTypes().add(superType);
+			ePackage.getEClassifiers().add(eClass);
+
+			Resource resource = resourceSet.createResource(uri);
+			resource.getContents().add(ePackage);
+			resource.save(Collections.emptyMap());
+		});
+
+		return uri;
+	}
+
+	private URI saveModel(final String fileName, final String className) throws Exception {
+		URI uri = URI.createPlatformResourceURI("/myProject/" + fileName, true);
+
+		EPackage ePackage = EcoreFactory.eINSTANCE.createEPackage();
+		ePackage.setName("myPackage");
+		EClass eClass = EcoreFactory.eINSTANCE.createEClass();
+		eClass.setName(className);
+		ePackage.getEClassifiers().add(eClass);
+
+		waitForWorkspaceChanges(() -> {
+			Resource resource = new ResourceSetImpl().createResource(uri);
+			resource.getContents().add(ePackage);
+			resource.save(Collections.emptyMap());
+		});
+
+		return uri;
+	}
+
+}
@@ -0,0 +1,121 @@
+package org.eclipse.commons.emf.cachinguriresolver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.commons.io.input.NullInputStream;
+import org.eclipse.commons.emf.CachingUriResolver;
+import org.eclipse.commons.emf.uriutils.ATestWorkspace;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.emf.common.util.URI;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test cases for {@link CachingUriResolver}.
+ *
+ * @author Niko Stotz
+ *
+ */
+public class TestCachingUriResolver extends ATestWorkspace {
+	private CachingUriResolver resolver;
+
+	@Before
+	public void createResolver() {
+		resolver = new CachingUriResolver(4);
+	}
+
+	@After
+	public void disposeResolver() {
+		resolver.dispose();
+	}
+
+	@Test
+	public void cached() throws Exception {
+		URI uri = URI.createPlatformResourceURI("/myProject/myFile.ext", true);
+		IResource first = resolver.toIResource(uri);
+		IResource second = resolver.toIResource(uri.appendFragment("fragment"));
+
+		assertSame(first, second);
+		assertEquals(1, resolver.size());
+	}
+
+	@Test
+	public void other() throws Exception {
+		URI uri = URI.createURI("https://example.com/MyFile.ext");
+
+		assertNull(resolver.toIResource(uri));
+		assertEquals(0, resolver.size());
+	}
+
+	@Test
+	public void bounded() throws Exception {
+		for (int i = 0; i < 10; i++) {
+			resolver.toIResource(URI.createPlatformResourceURI("/myProject/myFile" + i + ".ext", true));
+		}
+
+		assertEquals(4, resolver.size());
+	}
+
+	@Test
+	public void evictedOnAdd() throws Exception {
+		URI uri = URI.createPlatformResourceURI("/myProject/myFolder", true);
+		IResource before = resolver.toIResource(uri);
+		assertTrue(before instanceof IFile);
+		assertFalse(before.exists());
+
+		waitForWorkspaceChanges(() -> {
+			project.getFolder("myFolder").create(true, true, null);
+		});
+
+		IResource after = resolver.toIResource(uri);
+		assertTrue(after instanceof IFolder);
+		assertTrue(after.exists());
+	}
+
+	@Test
+	public void evictedOnRemoveSubtree() throws Exception {
+		waitForWorkspaceChanges(() -> {
+			project.getFolder("myFolder").create(true, true, null);
+			project.getFolder("myFolder/deep").create(true, true, null);
+		});
+
+		URI uri = URI.createPlatformResourceURI("/myProject/myFolder/deep", true);
+		URI unrelated = URI.createPlatformResourceURI("/myProject/other.ext", true);
+		assertTrue(resolver.toIResource(uri) instanceof IFolder);
+		resolver.toIResource(unrelated);
+		assertEquals(2, resolver.size());
+
+		waitForWorkspaceChanges(() -> {
+			project.getFolder("myFolder").delete(true, null);
+		});
+
+		assertEquals(1, resolver.size());
+		IResource after = resolver.toIResource(uri);
+		assertTrue(after instanceof IFile);
+		assertFalse(after.exists());
+	}
+
+	@Test
+	public void notEvictedOnContentChange() throws Exception {
+		waitForWorkspaceChanges(() -> {
+			project.getFile("myFile.ext").create(new NullInputStream(0), true, null);
+		});
+
+		URI uri = URI.createPlatformResourceURI("/myProject/myFile.ext", true);
+		IResource before = resolver.toIResource(uri);
+
+		waitForWorkspaceChanges(() -> {
+			project.getFile("myFile.ext").setContents(new NullInputStream(1), true, false, null);
+		});
+
+		assertEquals(1, resolver.size());
+		assertSame(before, resolver.toIResource(uri));
+	}
+}
@@ -0,0 +1,118 @@
+package org.eclipse.commons.emf.contentfingerprints;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Map;
+
+import org.eclipse.commons.emf.ContentFingerprints;
+import org.eclipse.commons.emf.uriutils.ATestWorkspace;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.emf.common.util.URI;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test cases for {@link ContentFingerprints}.
+ *
+ * @author Niko Stotz
+ *
+ */
+public class TestContentFingerprints extends ATestWorkspace {
+	private final ContentFingerprints fingerprints = ContentFingerprints.getInstance();
+
+	@Before
+	@After
+	public void clear() {
+		fingerprints.clear();
+	}
+
+	@Test
+	public void digest() throws Exception {
+		IFile file = createFile("myFile.ext", "content");
+
+		assertArrayEquals(expected("content"), fingerprints.getFingerprint(file));
+	}
+
+	@Test
+	public void changed() throws Exception {
+		IFile file = createFile("myFile.ext", "content");
+		fingerprints.getFingerprint(file);
+
+		waitForWorkspaceChanges(() -> file.setContents(stream("other"), true, false, null));
+
+		assertArrayEquals(expected("other"), fingerprints.getFingerprint(file));
+	}
+
+	@Test
+	public void unchangedNotRead() throws Exception {
+		IFile file = createFile("myFile.ext", "content");
+		fingerprints.getFingerprint(file);
+
+		// Change the file behind the back of the workspace, keeping its time stamp
+		File local = file.getLocation().toFile();
+		long lastModified = local.lastModified();
+		Files.write(local.toPath(), "other".getBytes(StandardCharsets.UTF_8));
+		local.setLastModified(lastModified);
+
+		assertArrayEquals(expected("content"), fingerprints.getFingerprint(file));
+
+		fingerprints.clear();
+		assertArrayEquals(expected("other"), fingerprints.getFingerprint(file));
+	}
+
+	@Test
+	public void uri() throws Exception {
+		createFile("myFile.ext", "content");
+
+		assertArrayEquals(expected("content"),
+				fingerprints.getFingerprint(URI.createPlatformResourceURI("/myProject/myFile.ext", true)));
+		assertNull(fingerprints.getFingerprint(URI.createPlatformResourceURI("/myProject/missing.ext", true)));
+		assertNull(fingerprints.getFingerprint(URI.createPlatformResourceURI("/myProject", true)));
+		assertNull(fingerprints.getFingerprint(URI.createURI("https://example.com/MyFile.ext")));
+	}
+
+	@Test
+	public void missingFile() throws Exception {
+		assertNull(fingerprints.getFingerprint(project.getFile("missing.ext")));
+	}
+
+	@Test
+	public void batch() throws Exception {
+		IFile first = createFile("first.ext", "first");
+		IFile second = createFile("second.ext", "second");
+		IFile missing = project.getFile("missing.ext");
+
+		Map<IFile, byte[]> result = fingerprints.getFingerprints(Arrays.asList(first, second, missing, first));
+
+		assertEquals(2, result.size());
+		assertArrayEquals(expected("first"), result.get(first));
+		assertArrayEquals(expected("second"), result.get(second));
+		assertFalse(result.containsKey(missing));
+	}
+
+	private IFile createFile(final String name, final String content) throws Exception {
+		IFile file = project.getFile(name);
+		waitForWorkspaceChanges(() -> file.create(stream(content), true, null));
+		return file;
+	}
+
+	private static ByteArrayInputStream stream(final String content) {
+		return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static byte[] expected(final String content) throws Exception {
+		return MessageDigest.getInstance(ContentFingerprints.ALGORITHM)
+				.digest(content.getBytes(StandardCharsets.UTF_8));
+	}
+
+}
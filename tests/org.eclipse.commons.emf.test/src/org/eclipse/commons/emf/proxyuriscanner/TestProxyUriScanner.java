@@ -0,0 +1,106 @@
+package org.eclipse.commons.emf.proxyuriscanner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.commons.emf.ProxyUriScanner;
+import org.eclipse.commons.emf.uriutils.ATestWorkspace;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.URIConverter;
+import org.junit.Test;
+
+/**
+ * Test cases for {@link ProxyUriScanner}.
+ *
+ * @author Niko Stotz
+ *
+ */
+public class TestProxyUriScanner extends ATestWorkspace {
+	private static final URI BASE = URI.createPlatformResourceURI("/myProject/folder/model.ecore", true);
+
+	private static final String HEADER = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+			+ "<ecore:EPackage xmi:version=\"2.0\" xmlns:xmi=\"http://www.omg.org/XMI\""
+			+ " xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\""
+			+ " xmlns:ecore=\"http://www.eclipse.org/emf/2002/Ecore\" name=\"myPackage\">\n";
+
+	private static final String FOOTER = "</ecore:EPackage>\n";
+
+	@Test
+	public void href() throws Exception {
+		Set<URI> uris = scan("<eClassifiers xsi:type=\"ecore:EClass\" name=\"A\">"
+				+ "<eSuperTypes href=\"platform:/resource/other/super.ecore#//Super\"/>"
+				+ "<eSuperTypes href=\"sibling.ecore#//Sibling\"/>"
+				+ "</eClassifiers>");
+
+		assertEquals(Arrays.asList(URI.createPlatformResourceURI("/other/super.ecore", true),
+				URI.createPlatformResourceURI("/myProject/folder/sibling.ecore", true)), Arrays.asList(uris.toArray()));
+	}
+
+	@Test
+	public void attribute() throws Exception {
+		Set<URI> uris = scan("<eClassifiers xsi:type=\"ecore:EClass\" name=\"A\""
+				+ " eSuperTypes=\"../super.ecore#//B ../super.ecore#//C #//D //E\">"
+				+ "<eStructuralFeatures xsi:type=\"ecore:EReference\" name=\"f\""
+				+ " eType=\"ecore:EClass other.ecore#//F\"/>"
+				+ "</eClassifiers>");
+
+		assertEquals(Arrays.asList(URI.createPlatformResourceURI("/myProject/super.ecore", true),
+				URI.createPlatformResourceURI("/myProject/folder/other.ecore", true)), Arrays.asList(uris.toArray()));
+	}
+
+	@Test
+	public void self() throws Exception {
+		Set<URI> uris = scan("<eClassifiers xsi:type=\"ecore:EClass\" name=\"A\" eSuperTypes=\"model.ecore#//B\"/>");
+
+		assertTrue(uris.isEmpty());
+	}
+
+	@Test
+	public void metaAttributesIgnored() throws Exception {
+		Set<URI> uris = scan("<eClassifiers xsi:type=\"ecore:EClass\" xmi:id=\"a#b\" name=\"A\"/>");
+
+		assertTrue(uris.isEmpty());
+	}
+
+	@Test(expected = IOException.class)
+	public void broken() throws Exception {
+		scan("<unclosed>");
+	}
+
+	@Test
+	public void dependencies() throws Exception {
+		IFile model = project.getFile("model.ecore");
+		waitForWorkspaceChanges(() -> {
+			model.create(toStream("<eClassifiers xsi:type=\"ecore:EClass\" name=\"A\""
+					+ " eSuperTypes=\"super.ecore#//B https://example.com/remote.ecore#//C\"/>"), true, null);
+		});
+
+		Map<IFile, Set<IResource>> dependencies = ProxyUriScanner.scanDependencies(Collections.singletonList(model),
+				URIConverter.INSTANCE);
+
+		assertEquals(Collections.singleton(model), dependencies.keySet());
+		assertEquals(Collections.singleton(project.getFile("super.ecore")), dependencies.get(model));
+	}
+
+	private static Set<URI> scan(final String body) throws IOException {
+		try (InputStream input = toStream(body)) {
+			return ProxyUriScanner.scan(input, BASE);
+		}
+	}
+
+	private static InputStream toStream(final String body) {
+		return new ByteArrayInputStream((HEADER + body + FOOTER).getBytes(StandardCharsets.UTF_8));
+	}
+
+}
@@ -0,0 +1,110 @@
+package org.eclipse.commons.emf.resolutionstatistics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.commons.io.input.NullInputStream;
+import org.eclipse.commons.emf.CachingUriResolver;
+import org.eclipse.commons.emf.ResolutionStatisticsMBean;
+import org.eclipse.commons.emf.UriUtils;
+import org.eclipse.commons.emf.uriutils.ATestWorkspace;
+import org.eclipse.emf.common.util.URI;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test cases for {@link UriUtils#getStatistics()}.
+ *
+ * @author Niko Stotz
+ *
+ */
+public class TestResolutionStatistics extends ATestWorkspace {
+	private ResolutionStatisticsMBean statistics;
+
+	@Before
+	public void enableStatistics() {
+		statistics = UriUtils.getStatistics();
+		statistics.setEnabled(true);
+		statistics.reset();
+	}
+
+	@After
+	public void disableStatistics() {
+		statistics.setEnabled(false);
+		statistics.reset();
+	}
+
+	@Test
+	public void outcomes() throws Exception {
+		waitForWorkspaceChanges(() -> {
+			project.getFolder("myFolder").create(true, true, null);
+			project.getFile("myFile.ext").create(new NullInputStream(0), true, null);
+		});
+
+		UriUtils.toIResource(URI.createPlatformResourceURI("/myProject/myFile.ext", true));
+		UriUtils.toIResource(URI.createPlatformResourceURI("/myProject/myFolder", true));
+		UriUtils.toIResource(URI.createPlatformResourceURI("/myProject", true));
+		UriUtils.toIResource(URI.createPlatformResourceURI("/", true));
+		UriUtils.toIResource(URI.createPlatformResourceURI("/myProject/missing.ext", true));
+		UriUtils.toIResource(URI.createPlatformResourceURI("/myProject/other.ext", true));
+		UriUtils.toIResource(URI.createURI("https://example.com/MyFile.ext"));
+
+		assertEquals(7, statistics.getCalls());
+		assertEquals(1, statistics.getExistingFiles());
+		assertEquals(1, statistics.getExistingFolders());
+		assertEquals(1, statistics.getExistingProjects());
+		assertEquals(1, statistics.getWorkspaceRoots());
+		assertEquals(2, statistics.getMissingFiles());
+		assertEquals(1, statistics.getNonPlatform());
+		assertEquals(7, Arrays.stream(statistics.getLatencyHistogram()).sum());
+	}
+
+	@Test
+	public void disabled() throws Exception {
+		statistics.setEnabled(false);
+
+		UriUtils.toIResource(URI.createPlatformResourceURI("/myProject/myFile.ext", true));
+
+		assertEquals(0, statistics.getCalls());
+		assertEquals(0, Arrays.stream(statistics.getLatencyHistogram()).sum());
+	}
+
+	@Test
+	public void cache() throws Exception {
+		CachingUriResolver resolver = new CachingUriResolver();
+		try {
+			URI uri = URI.createPlatformResourceURI("/myProject/myFile.ext", true);
+			resolver.toIResource(uri);
+			resolver.toIResource(uri);
+			resolver.toIResource(uri);
+			resolver.toIResource(uri);
+		} finally {
+			resolver.dispose();
+		}
+
+		assertEquals(3, statistics.getCacheHits());
+		assertEquals(1, statistics.getCacheMisses());
+		assertEquals(0.75, statistics.getCacheHitRate(), 0.0);
+		assertEquals(1, statistics.getCalls());
+	}
+
+	@Test
+	public void jmx() throws Exception {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		ObjectName name = new ObjectName(ResolutionStatisticsMBean.OBJECT_NAME);
+
+		UriUtils.toIResource(URI.createPlatformResourceURI("/myProject/myFile.ext", true));
+
+		assertTrue(server.isRegistered(name));
+		assertEquals(1L, server.getAttribute(name, "Calls"));
+		assertEquals(Boolean.TRUE, server.getAttribute(name, "Enabled"));
+	}
+
+}
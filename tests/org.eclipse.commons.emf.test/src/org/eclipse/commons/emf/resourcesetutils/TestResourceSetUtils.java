@@ -0,0 +1,109 @@
+package org.eclipse.commons.emf.resourcesetutils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+
+import org.eclipse.commons.emf.ResourceSetUtils;
+import org.eclipse.commons.emf.uriutils.ATestWorkspace;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.InternalEObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceImpl;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test cases for {@link ResourceSetUtils}.
+ *
+ * @author Niko Stotz
+ *
+ */
+public class TestResourceSetUtils extends ATestWorkspace {
+	private ResourceSet resourceSet;
+
+	@Before
+	public void createResourceSet() {
+		resourceSet = new ResourceSetImpl();
+	}
+
+	@Test
+	public void empty() throws Exception {
+		assertTrue(ResourceSetUtils.toIResources(resourceSet).isEmpty());
+		assertTrue(ResourceSetUtils.toProxyIResources(resourceSet).isEmpty());
+	}
+
+	@Test
+	public void resources() throws Exception {
+		Resource first = createResource(URI.createPlatformResourceURI("/myProject/first.ecore", true));
+		Resource second = createResource(URI.createPlatformResourceURI("/myProject/folder/second.ecore", true));
+		createResource(URI.createURI("https://example.com/other.ecore"));
+
+		Map<IProject, Map<Resource, IResource>> iResources = ResourceSetUtils.toIResources(resourceSet);
+
+		assertEquals(1, iResources.size());
+		Map<Resource, IResource> inProject = iResources.get(project);
+		assertEquals(2, inProject.size());
+		assertEquals(project.getFile("first.ecore"), inProject.get(first));
+		assertEquals(project.getFile("folder/second.ecore"), inProject.get(second));
+	}
+
+	@Test
+	public void resourcesMapped() throws Exception {
+		resourceSet.getURIConverter().getURIMap().put(URI.createPlatformPluginURI("/myBundle/", true),
+				URI.createPlatformResourceURI("/myProject/", true));
+		Resource resource = createResource(URI.createPlatformPluginURI("/myBundle/model.ecore", true));
+
+		Map<IProject, Map<Resource, IResource>> iResources = ResourceSetUtils.toIResources(resourceSet);
+
+		assertEquals(project.getFile("model.ecore"), iResources.get(project).get(resource));
+	}
+
+	@Test
+	public void proxies() throws Exception {
+		Resource resource = createResource(URI.createPlatformResourceURI("/myProject/model.ecore", true));
+		EClass eClass = EcoreFactory.eINSTANCE.createEClass();
+		EClass first = createProxy(URI.createPlatformResourceURI("/myProject/super.ecore", true).appendFragment("//A"));
+		EClass second = createProxy(URI.createPlatformResourceURI("/myProject/super.ecore", true).appendFragment("//B"));
+		EClass relative = createProxy(URI.createURI("folder/relative.ecore#//C"));
+		EClass other = createProxy(URI.createURI("https://example.com/other.ecore#//D"));
+		eClass.getESuperTypes().add(first);
+		eClass.getESuperTypes().add(second);
+		eClass.getESuperTypes().add(relative);
+		eClass.getESuperTypes().add(other);
+		resource.getContents().add(eClass);
+
+		Map<IProject, Map<URI, IResource>> iResources = ResourceSetUtils.toProxyIResources(resourceSet);
+
+		assertEquals(1, iResources.size());
+		Map<URI, IResource> inProject = iResources.get(project);
+		assertEquals(2, inProject.size());
+		assertEquals(project.getFile("super.ecore"),
+				inProject.get(URI.createPlatformResourceURI("/myProject/super.ecore", true)));
+		assertEquals(project.getFile("folder/relative.ecore"),
+				inProject.get(URI.createPlatformResourceURI("/myProject/folder/relative.ecore", true)));
+
+		assertTrue(first.eIsProxy());
+		assertEquals(1, resourceSet.getResources().size());
+	}
+
+	private Resource createResource(final URI uri) {
+		Resource result = new ResourceImpl(uri);
+		resourceSet.getResources().add(result);
+		return result;
+	}
+
+	private static EClass createProxy(final URI uri) {
+		EClass result = EcoreFactory.eINSTANCE.createEClass();
+		((InternalEObject) result).eSetProxyURI(uri);
+		return result;
+	}
+
+}
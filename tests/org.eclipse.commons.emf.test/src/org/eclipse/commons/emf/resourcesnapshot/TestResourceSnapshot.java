@@ -0,0 +1,127 @@
+package org.eclipse.commons.emf.resourcesnapshot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.commons.io.input.NullInputStream;
+import org.eclipse.commons.emf.ResourceSnapshot;
+import org.eclipse.commons.emf.UriUtils;
+import org.eclipse.commons.emf.uriutils.ATestWorkspace;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.emf.common.util.URI;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test cases for {@link ResourceSnapshot}.
+ *
+ * @author Niko Stotz
+ *
+ */
+public class TestResourceSnapshot extends ATestWorkspace {
+	private IFolder folder;
+	private IFile file;
+
+	@Before
+	public void createResources() throws Exception {
+		waitForWorkspaceChanges(() -> {
+			folder = project.getFolder("myFolder");
+			folder.create(true, true, null);
+			file = folder.getFile("myFile.ext");
+			file.create(new NullInputStream(0), true, null);
+		});
+	}
+
+	@Test
+	public void sameAsUriUtils() throws Exception {
+		ResourceSnapshot snapshot = ResourceSnapshot.of(project);
+
+		for (String path : new String[] { "/myProject", "/myProject/myFolder", "/myProject/myFolder/myFile.ext",
+				"/myProject/missing.ext", "/myProject/myFolder/MYFILE.ext", "//myProject///myFolder//myFile.ext/" }) {
+			URI uri = URI.createPlatformResourceURI(path, true);
+			IResource expected = UriUtils.toIResource(uri);
+			IResource actual = snapshot.toIResource(uri);
+			assertEquals(path, expected, actual);
+			assertEquals(path, expected.getType(), actual.getType());
+		}
+
+		assertEquals(3, snapshot.size());
+	}
+
+	@Test
+	public void types() throws Exception {
+		ResourceSnapshot snapshot = ResourceSnapshot.of(project);
+
+		assertEquals(IResource.PROJECT, snapshot.getType(new Path("/myProject")));
+		assertEquals(IResource.FOLDER, snapshot.getType(new Path("/myProject/myFolder")));
+		assertEquals(IResource.FILE, snapshot.getType(new Path("/myProject/myFolder/myFile.ext")));
+		assertEquals(IResource.NONE, snapshot.getType(new Path("/myProject/missing.ext")));
+	}
+
+	@Test
+	public void snapshotStale() throws Exception {
+		ResourceSnapshot snapshot = ResourceSnapshot.of(folder);
+
+		waitForWorkspaceChanges(() -> file.delete(true, null));
+
+		assertEquals(IResource.FILE, snapshot.getType(file.getFullPath()));
+		assertTrue(snapshot.toIResource(UriUtils.toUri(file)) instanceof IFile);
+	}
+
+	@Test
+	public void outsideCovered() throws Exception {
+		ResourceSnapshot snapshot = ResourceSnapshot.of(folder);
+
+		assertFalse(snapshot.covers(project.getFullPath()));
+		assertTrue(snapshot.covers(file.getFullPath()));
+		assertEquals(IResource.PROJECT, snapshot.getType(project.getFullPath()));
+		assertEquals(project, snapshot.toIResource(URI.createPlatformResourceURI("/myProject", true)));
+	}
+
+	@Test
+	public void containerMissing() throws Exception {
+		ResourceSnapshot snapshot = ResourceSnapshot.of(project.getFolder("missing"));
+
+		assertEquals(0, snapshot.size());
+		assertEquals(IResource.NONE, snapshot.getType(new Path("/myProject/missing/myFile.ext")));
+	}
+
+	@Test
+	public void projectClosed() throws Exception {
+		waitForWorkspaceChanges(() -> project.close(null));
+
+		ResourceSnapshot snapshot = ResourceSnapshot.of(project);
+
+		assertEquals(1, snapshot.size());
+		for (String path : new String[] { "/myProject", "/myProject/myFolder", "/myProject/myFolder/myFile.ext" }) {
+			URI uri = URI.createPlatformResourceURI(path, true);
+			IResource expected = UriUtils.toIResource(uri);
+			IResource actual = snapshot.toIResource(uri);
+			assertEquals(path, expected, actual);
+			assertEquals(path, expected.getType(), actual.getType());
+		}
+	}
+
+	@Test
+	public void rootWithClosedProject() throws Exception {
+		waitForWorkspaceChanges(() -> project.close(null));
+
+		ResourceSnapshot snapshot = ResourceSnapshot.of(project.getWorkspace().getRoot());
+
+		assertEquals(IResource.PROJECT, snapshot.getType(new Path("/myProject")));
+		assertEquals(IResource.NONE, snapshot.getType(new Path("/myProject/myFolder")));
+	}
+
+	@Test
+	public void uriOther() throws Exception {
+		ResourceSnapshot snapshot = ResourceSnapshot.of(project);
+
+		assertNull(snapshot.toIResource(URI.createURI("https://example.com/MyFile.ext")));
+	}
+
+}
@@ -0,0 +1,197 @@
+package org.eclipse.commons.emf.urideltacollector;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.input.NullInputStream;
+import org.eclipse.commons.emf.UriDelta;
+import org.eclipse.commons.emf.UriDeltaCollector;
+import org.eclipse.commons.emf.uriutils.ATestWorkspace;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.emf.common.util.URI;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test cases for {@link UriDeltaCollector} and {@link UriDelta}.
+ *
+ * @author Niko Stotz
+ *
+ */
+public class TestUriDeltaCollector extends ATestWorkspace {
+	private final List<UriDelta> batches = new CopyOnWriteArrayList<>();
+
+	private UriDeltaCollector collector;
+
+	@Before
+	public void createCollector() {
+		// long window, tests flush explicitly
+		collector = new UriDeltaCollector(1, TimeUnit.HOURS, batches::add);
+	}
+
+	@After
+	public void disposeCollector() {
+		collector.dispose();
+	}
+
+	@Test
+	public void added() throws Exception {
+		IFolder folder = project.getFolder("myFolder");
+		folder.create(true, true, null);
+		folder.getFile("a.ext").create(new NullInputStream(0), true, null);
+		folder.getFile("b.ext").create(new NullInputStream(0), true, null);
+
+		collector.flush();
+
+		assertEquals(1, batches.size());
+		UriDelta batch = batches.get(0);
+		assertEquals(2, batch.getAdded().size());
+		assertTrue(batch.getAdded().contains(uri("/myProject/myFolder/a.ext")));
+		assertTrue(batch.getAdded().contains(uri("/myProject/myFolder/b.ext")));
+		assertTrue(batch.getRemoved().isEmpty());
+		assertTrue(batch.getChanged().isEmpty());
+		assertTrue(batch.getMoved().isEmpty());
+	}
+
+	@Test
+	public void addedRemoved() throws Exception {
+		IFile file = project.getFile("myFile.ext");
+		file.create(new NullInputStream(0), true, null);
+		file.delete(true, null);
+
+		collector.flush();
+
+		assertTrue(batches.isEmpty());
+	}
+
+	@Test
+	public void changedRemoved() throws Exception {
+		IFile file = project.getFile("myFile.ext");
+		file.create(new NullInputStream(0), true, null);
+		collector.flush();
+
+		file.setContents(new ByteArrayInputStream(new byte[] { 1 }), true, false, null);
+		collector.flush();
+		file.setContents(new ByteArrayInputStream(new byte[] { 2 }), true, false, null);
+		file.delete(true, null);
+		collector.flush();
+
+		assertEquals(3, batches.size());
+		assertEquals(Collections.singleton(uri("/myProject/myFile.ext")), batches.get(1).getChanged());
+		assertEquals(Collections.singleton(uri("/myProject/myFile.ext")), batches.get(2).getRemoved());
+		assertTrue(batches.get(2).getChanged().isEmpty());
+	}
+
+	@Test
+	public void movedTwice() throws Exception {
+		IFile file = project.getFile("a.ext");
+		file.create(new NullInputStream(0), true, null);
+		collector.flush();
+
+		file.move(project.getFile("b.ext").getFullPath(), true, null);
+		project.getFile("b.ext").move(project.getFile("c.ext").getFullPath(), true, null);
+		collector.flush();
+
+		assertEquals(2, batches.size());
+		UriDelta batch = batches.get(1);
+		assertEquals(Collections.singletonMap(uri("/myProject/a.ext"), uri("/myProject/c.ext")), batch.getMoved());
+		assertTrue(batch.getAdded().isEmpty());
+		assertTrue(batch.getRemoved().isEmpty());
+	}
+
+	@Test
+	public void movedFolder() throws Exception {
+		IFolder folder = project.getFolder("myFolder");
+		folder.create(true, true, null);
+		folder.getFile("a.ext").create(new NullInputStream(0), true, null);
+		collector.flush();
+
+		folder.move(project.getFolder("otherFolder").getFullPath(), true, null);
+		collector.flush();
+
+		assertEquals(Collections.singletonMap(uri("/myProject/myFolder/a.ext"), uri("/myProject/otherFolder/a.ext")),
+				batches.get(1).getMoved());
+	}
+
+	@Test
+	public void movedAndReadded() throws Exception {
+		IFile file = project.getFile("a.ext");
+		file.create(new NullInputStream(0), true, null);
+		collector.flush();
+
+		file.move(project.getFile("b.ext").getFullPath(), true, null);
+		file.create(new NullInputStream(0), true, null);
+		collector.flush();
+
+		UriDelta batch = batches.get(1);
+		assertTrue(batch.getMoved().isEmpty());
+		assertEquals(Collections.singleton(uri("/myProject/b.ext")), batch.getAdded());
+		assertEquals(Collections.singleton(uri("/myProject/a.ext")), batch.getChanged());
+		assertTrue(batch.getRemoved().isEmpty());
+	}
+
+	@Test
+	public void projectClosedOpened() throws Exception {
+		project.getFolder("myFolder").create(true, true, null);
+		project.getFile("myFolder/a.ext").create(new NullInputStream(0), true, null);
+		collector.flush();
+
+		project.close(null);
+		collector.flush();
+		project.open(null);
+		collector.flush();
+
+		assertEquals(3, batches.size());
+		UriDelta closed = batches.get(1);
+		assertEquals(Collections.singleton(uri("/myProject")), closed.getRemoved());
+		assertTrue(closed.getAdded().isEmpty());
+		UriDelta opened = batches.get(2);
+		assertTrue(opened.getAdded().contains(uri("/myProject/myFolder/a.ext")));
+		assertTrue(opened.getRemoved().isEmpty());
+	}
+
+	@Test
+	public void addedThenProjectClosed() throws Exception {
+		project.getFile("a.ext").create(new NullInputStream(0), true, null);
+		project.close(null);
+		collector.flush();
+
+		UriDelta batch = batches.get(0);
+		assertTrue(batch.getAdded().isEmpty());
+		assertEquals(Collections.singleton(uri("/myProject")), batch.getRemoved());
+
+		project.open(null);
+	}
+
+	@Test
+	public void window() throws Exception {
+		collector.dispose();
+		CountDownLatch delivered = new CountDownLatch(1);
+		collector = new UriDeltaCollector(2, TimeUnit.SECONDS, batch -> {
+			batches.add(batch);
+			delivered.countDown();
+		});
+
+		for (int i = 0; i < 10; i++) {
+			project.getFile("file" + i + ".ext").create(new NullInputStream(0), true, null);
+		}
+
+		assertTrue(delivered.await(60, TimeUnit.SECONDS));
+		assertEquals(1, batches.size());
+		assertEquals(10, batches.get(0).getAdded().size());
+	}
+
+	private static URI uri(final String path) {
+		return URI.createPlatformResourceURI(path, true);
+	}
+
+}
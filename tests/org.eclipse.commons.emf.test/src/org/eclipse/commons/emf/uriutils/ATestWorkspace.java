@@ -1,14 +1,11 @@
 package org.eclipse.commons.emf.uriutils;
 
-import static org.eclipse.core.resources.IResourceChangeEvent.POST_BUILD;
-import static org.eclipse.core.resources.IResourceChangeEvent.POST_CHANGE;
-import static org.eclipse.core.resources.IResourceChangeEvent.PRE_BUILD;
+import static org.junit.Assert.assertTrue;
 
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.TimeUnit;
 
+import org.eclipse.commons.emf.WorkspaceUtils;
 import org.eclipse.core.resources.IProject;
-import org.eclipse.core.resources.IResourceChangeEvent;
-import org.eclipse.core.resources.IResourceChangeListener;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.ISafeRunnable;
 import org.junit.After;
@@ -22,6 +19,7 @@ import org.junit.Before;
  * @since 0.1
  */
 public abstract class ATestWorkspace {
+	private static final long SETTLE_TIMEOUT_SECONDS = 60;
 
 	protected IProject project;
 
@@ -44,40 +42,9 @@ public abstract class ATestWorkspace {
 	}
 
 	protected void waitForWorkspaceChanges(ISafeRunnable work) throws Exception {
-		AtomicBoolean finished = new AtomicBoolean(false);
-		ResourcesPlugin.getWorkspace().addResourceChangeListener(new IResourceChangeListener() {
-			private boolean buildStarted = false;
-			private boolean changed = false;
-
-			private boolean isType(IResourceChangeEvent event, int typeFlag) {
-				return (event.getType() & typeFlag) != 0;
-			}
-
-			@Override
-			public void resourceChanged(IResourceChangeEvent event) {
-				if (isType(event, PRE_BUILD)) {
-					buildStarted = true;
-				}
-				if (isType(event, POST_BUILD)) {
-					buildStarted = false;
-				}
-				if (isType(event, POST_CHANGE)) {
-					changed = true;
-				}
-
-				if (!buildStarted && changed) {
-					finished.set(true);
-					ResourcesPlugin.getWorkspace().removeResourceChangeListener(this);
-				}
-
-			}
-		}, IResourceChangeEvent.PRE_BUILD | IResourceChangeEvent.POST_CHANGE | IResourceChangeEvent.POST_BUILD);
-
 		work.run();
 
-		while (!finished.get()) {
-			Thread.sleep(271);
-		}
+		assertTrue("Workspace did not settle", WorkspaceUtils.waitForQuiescence(SETTLE_TIMEOUT_SECONDS, TimeUnit.SECONDS));
 	}
 
 }
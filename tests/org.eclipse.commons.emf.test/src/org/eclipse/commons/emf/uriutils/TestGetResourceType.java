@@ -0,0 +1,130 @@
+package org.eclipse.commons.emf.uriutils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.eclipse.commons.emf.InMemoryPathResolver;
+import org.eclipse.commons.emf.UriUtils;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.emf.common.util.URI;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test cases for {@link UriUtils#getResourceType(URI, org.eclipse.commons.emf.PathResolver)}
+ * with an {@link InMemoryPathResolver}.
+ *
+ * <p>
+ * These tests do not need the workspace.
+ * </p>
+ *
+ * @author Niko Stotz
+ *
+ */
+public class TestGetResourceType {
+	private InMemoryPathResolver resolver;
+
+	@Before
+	public void createResolver() {
+		resolver = new InMemoryPathResolver();
+		resolver.addFile(new Path("/myProject/folder/deep/myFile.ext"));
+		resolver.addFolder(new Path("/myProject/emptyFolder"));
+		resolver.addProject(new Path("/otherProject"));
+	}
+
+	@Test
+	public void file() throws Exception {
+		URI uri = URI.createPlatformResourceURI("/myProject/folder/deep/myFile.ext", true);
+
+		assertEquals(IResource.FILE, UriUtils.getResourceType(uri, resolver));
+	}
+
+	@Test
+	public void fileSlashesExcess() throws Exception {
+		URI uri = URI.createPlatformResourceURI("////myProject///folder///deep/myFile.ext//", true);
+
+		assertEquals(IResource.FILE, UriUtils.getResourceType(uri, resolver));
+	}
+
+	@Test
+	public void fileDifferentCase() throws Exception {
+		URI uri = URI.createPlatformResourceURI("/myProject/folder/deep/MYfILE.ext", true);
+
+		assertEquals(IResource.NONE, UriUtils.getResourceType(uri, resolver));
+	}
+
+	@Test
+	public void fileMissing() throws Exception {
+		URI uri = URI.createPlatformResourceURI("/myProject/folder/missing/myFile.ext", true);
+
+		assertEquals(IResource.NONE, UriUtils.getResourceType(uri, resolver));
+	}
+
+	@Test
+	public void parentsImplicit() throws Exception {
+		assertEquals(IResource.FOLDER,
+				UriUtils.getResourceType(URI.createPlatformResourceURI("/myProject/folder/deep", true), resolver));
+		assertEquals(IResource.FOLDER,
+				UriUtils.getResourceType(URI.createPlatformResourceURI("/myProject/emptyFolder", true), resolver));
+		assertEquals(IResource.PROJECT,
+				UriUtils.getResourceType(URI.createPlatformResourceURI("/myProject", true), resolver));
+		assertEquals(IResource.PROJECT,
+				UriUtils.getResourceType(URI.createPlatformResourceURI("/otherProject", true), resolver));
+		assertEquals(IResource.ROOT, UriUtils.getResourceType(URI.createPlatformResourceURI("/", true), resolver));
+	}
+
+	@Test
+	public void remove() throws Exception {
+		assertTrue(resolver.remove(new Path("/myProject/folder")));
+		assertFalse(resolver.remove(new Path("/myProject/folder")));
+
+		URI uri = URI.createPlatformResourceURI("/myProject/folder/deep/myFile.ext", true);
+		assertEquals(IResource.NONE, UriUtils.getResourceType(uri, resolver));
+		assertEquals(IResource.PROJECT,
+				UriUtils.getResourceType(URI.createPlatformResourceURI("/myProject", true), resolver));
+	}
+
+	@Test
+	public void uriOther() throws Exception {
+		URI uri = URI.createURI("https://example.com/MyFile.ext");
+
+		assertEquals(IResource.NONE, UriUtils.getResourceType(uri, resolver));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void belowFile() throws Exception {
+		resolver.addFile(new Path("/myProject/folder/deep/myFile.ext/nested.ext"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void fileInRoot() throws Exception {
+		resolver.addFile(new Path("/myFile.ext"));
+	}
+
+	@Test
+	public void addedAgain() throws Exception {
+		resolver.addFolder(new Path("/myProject/folder"));
+
+		URI uri = URI.createPlatformResourceURI("/myProject/folder/deep/myFile.ext", true);
+		assertEquals(IResource.FILE, UriUtils.getResourceType(uri, resolver));
+	}
+
+	@Test
+	public void typeConflict() throws Exception {
+		try {
+			resolver.addFile(new Path("/myProject/folder"));
+			fail();
+		} catch (IllegalArgumentException e) {
+			// Keeps the folder and its descendants
+		}
+
+		assertEquals(IResource.FOLDER,
+				UriUtils.getResourceType(URI.createPlatformResourceURI("/myProject/folder", true), resolver));
+		assertEquals(IResource.FILE, UriUtils.getResourceType(
+				URI.createPlatformResourceURI("/myProject/folder/deep/myFile.ext", true), resolver));
+	}
+
+}
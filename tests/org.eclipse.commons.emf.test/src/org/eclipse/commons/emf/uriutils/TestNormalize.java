@@ -0,0 +1,118 @@
+package org.eclipse.commons.emf.uriutils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.eclipse.commons.emf.UriUtils;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.emf.common.util.URI;
+import org.junit.Test;
+
+/**
+ * Test cases for {@link UriUtils#normalize(URI)} and
+ * {@link UriUtils#isValidPlatformResource(URI)}.
+ *
+ * @author Niko Stotz
+ *
+ */
+public class TestNormalize {
+	@Test
+	public void aliasesSame() throws Exception {
+		URI expected = UriUtils.toUri(new Path("/myProject/folder/myFile.ext"));
+
+		assertSame(expected, UriUtils.normalize(URI.createPlatformResourceURI("/myProject/folder/myFile.ext", true)));
+		assertSame(expected,
+				UriUtils.normalize(URI.createPlatformResourceURI("////myProject///folder//myFile.ext//", true)));
+		assertSame(expected,
+				UriUtils.normalize(URI.createURI("platform:/resource/myProject/./other/../folder/myFile.ext")));
+		assertSame(expected, UriUtils.normalize(
+				URI.createPlatformResourceURI("/myProject/folder/myFile.ext", true).appendFragment("//@root")));
+		assertSame(expected, UriUtils.normalize(URI.createURI("platform:/resource/my%50roject/folder/myFile.ext")));
+	}
+
+	@Test
+	public void encoded() throws Exception {
+		URI uri = UriUtils.normalize(URI.createPlatformResourceURI("/myProject/my folder/100%.ext", true));
+
+		assertEquals("/myProject/my folder/100%.ext", UriUtils.toPath(uri).toString());
+	}
+
+	@Test
+	public void workspaceRoot() throws Exception {
+		assertSame(UriUtils.toUri(Path.ROOT), UriUtils.normalize(URI.createURI("platform:/resource///")));
+		assertSame(UriUtils.toUri(Path.ROOT), UriUtils.normalize(URI.createURI("platform:/resource/myProject/..")));
+	}
+
+	@Test
+	public void dotsOnlyName() throws Exception {
+		URI uri = UriUtils.normalize(URI.createURI("platform:/resource/...////"));
+
+		assertEquals("/...", UriUtils.toPath(uri).toString());
+	}
+
+	@Test
+	public void other() throws Exception {
+		URI uri = URI.createURI("https://example.com/MyFile.ext");
+
+		assertNull(UriUtils.normalize(uri));
+		assertFalse(UriUtils.isValidPlatformResource(uri));
+	}
+
+	@Test
+	public void valid() throws Exception {
+		assertTrue(UriUtils.isValidPlatformResource(URI.createPlatformResourceURI("/myProject/myFile.ext", true)));
+		assertTrue(UriUtils.isValidPlatformResource(URI.createURI("platform:/resource/myProject/a/../b%20c.ext")));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void escapesRoot() throws Exception {
+		URI uri = URI.createURI("platform:/resource/myProject/../../other/myFile.ext");
+
+		assertFalse(UriUtils.isValidPlatformResource(uri));
+		UriUtils.normalize(uri);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void escapesRootEncoded() throws Exception {
+		URI uri = URI.createURI("platform:/resource/%2E%2e/myProject/myFile.ext");
+
+		assertFalse(UriUtils.isValidPlatformResource(uri));
+		UriUtils.normalize(uri);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void slashEncoded() throws Exception {
+		URI uri = URI.createURI("platform:/resource/myProject/a%2Fb.ext");
+
+		assertFalse(UriUtils.isValidPlatformResource(uri));
+		UriUtils.normalize(uri);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void backslash() throws Exception {
+		URI uri = URI.createURI("platform:/resource/myProject/a%5Cb.ext");
+
+		assertFalse(UriUtils.isValidPlatformResource(uri));
+		UriUtils.normalize(uri);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void device() throws Exception {
+		URI uri = URI.createURI("platform:/resource/C:/myProject/myFile.ext");
+
+		assertFalse(UriUtils.isValidPlatformResource(uri));
+		UriUtils.normalize(uri);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void nul() throws Exception {
+		URI uri = URI.createURI("platform:/resource/myProject/my%00File.ext");
+
+		assertFalse(UriUtils.isValidPlatformResource(uri));
+		UriUtils.normalize(uri);
+	}
+
+}
@@ -0,0 +1,157 @@
+package org.eclipse.commons.emf.uriutils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.apache.commons.io.input.NullInputStream;
+import org.eclipse.commons.emf.UriUtils;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.URIConverter;
+import org.eclipse.emf.ecore.resource.impl.ExtensibleURIConverterImpl;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test cases for {@link UriUtils#toIResourceAliases(URI, URIConverter)}.
+ *
+ * @author Niko Stotz
+ *
+ */
+public class TestToIResourceAliases extends ATestWorkspace {
+	private final URIConverter uriConverter = new ExtensibleURIConverterImpl();
+
+	private IProject otherProject;
+
+	private IFolder link;
+
+	@Before
+	public void createLink() throws Exception {
+		waitForWorkspaceChanges(() -> {
+			IFolder target = project.getFolder("target");
+			target.create(true, true, null);
+			target.getFile("myFile.ext").create(new NullInputStream(0), true, null);
+
+			otherProject = ResourcesPlugin.getWorkspace().getRoot().getProject("otherProject");
+			otherProject.create(null);
+			otherProject.open(null);
+			link = otherProject.getFolder("link");
+			link.createLink(target.getLocation(), IResource.NONE, null);
+		});
+	}
+
+	@After
+	public void deleteOtherProject() throws Exception {
+		if (otherProject != null) {
+			waitForWorkspaceChanges(() -> otherProject.delete(true, true, null));
+		}
+	}
+
+	@Test
+	public void linkedPlatformResource() throws Exception {
+		URI uri = URI.createPlatformResourceURI("/otherProject/link/myFile.ext", true);
+
+		assertEquals(Arrays.asList(project.getFile("target/myFile.ext"), link.getFile("myFile.ext")),
+				UriUtils.toIResourceAliases(uri, uriConverter));
+	}
+
+	@Test
+	public void fileCanonical() throws Exception {
+		URI uri = URI.createFileURI(link.getFile("myFile.ext").getLocation().toOSString());
+
+		assertEquals(project.getFile("target/myFile.ext"), UriUtils.toIResource(uri, uriConverter));
+		assertEquals(Arrays.asList(project.getFile("target/myFile.ext"), link.getFile("myFile.ext")),
+				UriUtils.toIResourceAliases(uri, uriConverter));
+	}
+
+	@Test
+	public void folder() throws Exception {
+		URI uri = URI.createPlatformResourceURI("/myProject/target", true);
+
+		assertEquals(Arrays.asList(project.getFolder("target"), link),
+				UriUtils.toIResourceAliases(uri, uriConverter));
+	}
+
+	@Test
+	public void linkInsideProjectLocation() throws Exception {
+		// Inside the directory of otherProject, but link/myFile.ext lives in
+		// the target folder
+		URI uri = URI.createFileURI(otherProject.getLocation().append("link/myFile.ext").toOSString());
+
+		assertNull(UriUtils.toIResource(uri, uriConverter));
+		assertTrue(UriUtils.toIResourceAliases(uri, uriConverter).isEmpty());
+	}
+
+	@Test
+	public void missingFile() throws Exception {
+		URI uri = URI.createPlatformResourceURI("/otherProject/link/missing.ext", true);
+
+		assertEquals(Arrays.asList(project.getFile("target/missing.ext"), link.getFile("missing.ext")),
+				UriUtils.toIResourceAliases(uri, uriConverter));
+	}
+
+	@Test
+	public void linkRemoved() throws Exception {
+		URI uri = URI.createPlatformResourceURI("/myProject/target/myFile.ext", true);
+		assertEquals(2, UriUtils.toIResourceAliases(uri, uriConverter).size());
+
+		waitForWorkspaceChanges(() -> link.delete(true, null));
+
+		assertEquals(Collections.singletonList(project.getFile("target/myFile.ext")),
+				UriUtils.toIResourceAliases(uri, uriConverter));
+	}
+
+	@Test
+	public void linkAdded() throws Exception {
+		URI uri = URI.createPlatformResourceURI("/myProject/target/myFile.ext", true);
+		assertEquals(2, UriUtils.toIResourceAliases(uri, uriConverter).size());
+
+		IFolder secondLink = otherProject.getFolder("secondLink");
+		waitForWorkspaceChanges(
+				() -> secondLink.createLink(project.getFolder("target").getLocation(), IResource.NONE, null));
+
+		assertEquals(
+				Arrays.asList(project.getFile("target/myFile.ext"), link.getFile("myFile.ext"),
+						secondLink.getFile("myFile.ext")),
+				UriUtils.toIResourceAliases(uri, uriConverter));
+	}
+
+	@Test
+	public void projectReopened() throws Exception {
+		URI uri = URI.createPlatformResourceURI("/myProject/target/myFile.ext", true);
+		assertEquals(2, UriUtils.toIResourceAliases(uri, uriConverter).size());
+
+		waitForWorkspaceChanges(() -> otherProject.close(null));
+		assertEquals(Collections.singletonList(project.getFile("target/myFile.ext")),
+				UriUtils.toIResourceAliases(uri, uriConverter));
+
+		waitForWorkspaceChanges(() -> otherProject.open(null));
+		assertEquals(Arrays.asList(project.getFile("target/myFile.ext"), link.getFile("myFile.ext")),
+				UriUtils.toIResourceAliases(uri, uriConverter));
+	}
+
+	@Test
+	public void virtualFolder() throws Exception {
+		IFolder virtual = otherProject.getFolder("virtual");
+		waitForWorkspaceChanges(() -> virtual.create(IResource.VIRTUAL, true, null));
+
+		URI uri = URI.createPlatformResourceURI("/otherProject/virtual", true);
+
+		assertEquals(Collections.singletonList(virtual), UriUtils.toIResourceAliases(uri, uriConverter));
+	}
+
+	@Test
+	public void other() throws Exception {
+		assertTrue(UriUtils.toIResourceAliases(URI.createURI("https://example.com/MyFile.ext"), uriConverter)
+				.isEmpty());
+	}
+
+}
@@ -0,0 +1,140 @@
+package org.eclipse.commons.emf.uriutils;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.apache.commons.io.input.NullInputStream;
+import org.eclipse.commons.emf.CachingUriResolver;
+import org.eclipse.commons.emf.UriUtils;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.emf.common.util.URI;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Stress tests for concurrent use of {@link UriUtils#toIResource(URI)} and
+ * {@link CachingUriResolver#toIResource(URI)}.
+ *
+ * <p>
+ * The tests only check that concurrent resolution yields the same results as
+ * sequential resolution. Scaling across cores is measured by
+ * {@code ConcurrentToIResourceBenchmark} in the benchmark bundle, as wall-clock
+ * comparisons are not reliable on shared build machines.
+ * </p>
+ *
+ * @author Niko Stotz
+ *
+ */
+public class TestToIResourceConcurrent extends ATestWorkspace {
+	private static final int FOLDERS = 10;
+
+	private static final int FILES_PER_FOLDER = 20;
+
+	private static final int TASKS = 64;
+
+	private static final int ROUNDS_PER_TASK = 8;
+
+	private List<URI> uris;
+
+	@Before
+	public void createFiles() throws Exception {
+		waitForWorkspaceChanges(() -> {
+			ResourcesPlugin.getWorkspace().run(monitor -> {
+				for (int i = 0; i < FOLDERS; i++) {
+					project.getFolder("folder" + i).create(true, true, null);
+					for (int j = 0; j < FILES_PER_FOLDER; j++) {
+						project.getFile("folder" + i + "/file" + j + ".ext").create(new NullInputStream(0), true,
+								null);
+					}
+				}
+			}, null);
+		});
+
+		uris = new ArrayList<>();
+		for (int i = 0; i < FOLDERS; i++) {
+			for (int j = 0; j < FILES_PER_FOLDER; j++) {
+				uris.add(URI.createPlatformResourceURI("/myProject/folder" + i + "/file" + j + ".ext", true));
+				uris.add(URI.createPlatformResourceURI("/myProject/folder" + i + "/missing" + j + ".ext", true));
+			}
+		}
+	}
+
+	@Test
+	public void sameAsSequential() throws Exception {
+		List<IResource> expected = uris.stream().map(UriUtils::toIResource).collect(Collectors.toList());
+
+		ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+		try {
+			List<IResource> actual = pool
+					.submit(() -> uris.parallelStream().map(UriUtils::toIResource).collect(Collectors.toList())).get();
+
+			assertEquals(expected, actual);
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void resolverSameAsSequential() throws Exception {
+		CachingUriResolver resolver = new CachingUriResolver();
+		try {
+			List<IResource> expected = uris.stream().map(UriUtils::toIResource).collect(Collectors.toList());
+
+			runParallel(Runtime.getRuntime().availableProcessors(), uri -> {
+				IResource resource = resolver.toIResource(uri);
+				assertEquals(UriUtils.toIResource(uri), resource);
+				return resource;
+			});
+
+			for (int i = 0; i < uris.size(); i++) {
+				assertEquals(expected.get(i), resolver.toIResource(uris.get(i)));
+			}
+		} finally {
+			resolver.dispose();
+		}
+	}
+
+	@Test
+	public void contended() throws Exception {
+		Map<URI, IResource> expected = new HashMap<>();
+		for (URI uri : uris) {
+			expected.put(uri, UriUtils.toIResource(uri));
+		}
+
+		runParallel(Runtime.getRuntime().availableProcessors(), uri -> {
+			IResource resource = UriUtils.toIResource(uri);
+			assertEquals(expected.get(uri), resource);
+			return resource;
+		});
+	}
+
+	/**
+	 * Resolves all {@link #uris} {@link #TASKS} &times; {@link #ROUNDS_PER_TASK}
+	 * times on {@code threads} threads. Rethrows the first failure of any
+	 * thread.
+	 */
+	private void runParallel(final int threads, final Function<URI, IResource> resolution) throws Exception {
+		ForkJoinPool pool = new ForkJoinPool(threads);
+		try {
+			pool.submit(() -> IntStream.range(0, TASKS).parallel().forEach(task -> {
+				for (int round = 0; round < ROUNDS_PER_TASK; round++) {
+					for (URI uri : uris) {
+						resolution.apply(uri);
+					}
+				}
+			})).get();
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+}
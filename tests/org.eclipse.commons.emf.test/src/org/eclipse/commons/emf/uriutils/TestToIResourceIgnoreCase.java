@@ -0,0 +1,179 @@
+package org.eclipse.commons.emf.uriutils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.commons.io.input.NullInputStream;
+import org.eclipse.commons.emf.UriUtils;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.emf.common.util.URI;
+import org.junit.Test;
+
+/**
+ * Test cases for {@link UriUtils#toIResourceIgnoreCase(URI)}.
+ *
+ * @author Niko Stotz
+ *
+ */
+public class TestToIResourceIgnoreCase extends ATestWorkspace {
+	@Test
+	public void fileExact() throws Exception {
+		waitForWorkspaceChanges(() -> {
+			IFile file = project.getFile("myFile.ext");
+			file.create(new NullInputStream(0), true, null);
+		});
+
+		URI uri = URI.createPlatformResourceURI("/myProject/myFile.ext", true);
+		IResource iResource = UriUtils.toIResourceIgnoreCase(uri);
+
+		assertTrue(iResource instanceof IFile);
+		assertTrue(iResource.exists());
+		assertEquals("/myProject/myFile.ext", iResource.getFullPath().toString());
+	}
+
+	@Test
+	public void fileDifferentCase() throws Exception {
+		waitForWorkspaceChanges(() -> {
+			project.getFolder("myFolder").create(true, true, null);
+			IFile file = project.getFile("myFolder/myFile.ext");
+			file.create(new NullInputStream(0), true, null);
+		});
+
+		URI uri = URI.createPlatformResourceURI("/MYPROJECT/myfolder/mYfILE.EXT", true);
+		IResource iResource = UriUtils.toIResourceIgnoreCase(uri);
+
+		assertTrue(iResource instanceof IFile);
+		assertTrue(iResource.exists());
+		assertEquals("/myProject/myFolder/myFile.ext", iResource.getFullPath().toString());
+	}
+
+	@Test
+	public void folderDifferentCase() throws Exception {
+		waitForWorkspaceChanges(() -> {
+			project.getFolder("myFolder").create(true, true, null);
+		});
+
+		URI uri = URI.createPlatformResourceURI("/myProject/MyFolder/", true);
+		IResource iResource = UriUtils.toIResourceIgnoreCase(uri);
+
+		assertTrue(iResource instanceof IFolder);
+		assertTrue(iResource.exists());
+		assertEquals("/myProject/myFolder", iResource.getFullPath().toString());
+	}
+
+	@Test
+	public void projectDifferentCase() throws Exception {
+		URI uri = URI.createPlatformResourceURI("/MyProject", true);
+		IResource iResource = UriUtils.toIResourceIgnoreCase(uri);
+
+		assertTrue(iResource instanceof IProject);
+		assertEquals(project, iResource);
+	}
+
+	@Test
+	public void fileMissingBelowDifferentCase() throws Exception {
+		waitForWorkspaceChanges(() -> {
+			project.getFolder("myFolder").create(true, true, null);
+		});
+
+		URI uri = URI.createPlatformResourceURI("/myproject/MYFOLDER/Missing/myFile.ext", true);
+		IResource iResource = UriUtils.toIResourceIgnoreCase(uri);
+
+		assertTrue(iResource instanceof IFile);
+		assertFalse(iResource.exists());
+		assertEquals("/myProject/myFolder/Missing/myFile.ext", iResource.getFullPath().toString());
+	}
+
+	@Test
+	public void updatedOnAdd() throws Exception {
+		URI uri = URI.createPlatformResourceURI("/myProject/MYFILE.ext", true);
+		assertFalse(UriUtils.toIResourceIgnoreCase(uri).exists());
+
+		waitForWorkspaceChanges(() -> {
+			IFile file = project.getFile("myFile.ext");
+			file.create(new NullInputStream(0), true, null);
+		});
+
+		IResource iResource = UriUtils.toIResourceIgnoreCase(uri);
+		assertTrue(iResource.exists());
+		assertEquals("/myProject/myFile.ext", iResource.getFullPath().toString());
+	}
+
+	@Test
+	public void updatedOnRename() throws Exception {
+		waitForWorkspaceChanges(() -> {
+			project.getFolder("myFolder").create(true, true, null);
+			IFile file = project.getFile("myFolder/myFile.ext");
+			file.create(new NullInputStream(0), true, null);
+		});
+
+		URI uri = URI.createPlatformResourceURI("/myProject/MYFOLDER/MYFILE.ext", true);
+		assertTrue(UriUtils.toIResourceIgnoreCase(uri).exists());
+
+		waitForWorkspaceChanges(() -> {
+			project.getFolder("myFolder").move(project.getFullPath().append("otherFolder"), true, null);
+		});
+
+		IResource iResource = UriUtils.toIResourceIgnoreCase(uri);
+		assertFalse(iResource.exists());
+		assertEquals("/myProject/MYFOLDER/MYFILE.ext", iResource.getFullPath().toString());
+
+		URI moved = URI.createPlatformResourceURI("/myProject/OTHERFOLDER/MYFILE.ext", true);
+		assertEquals("/myProject/otherFolder/myFile.ext",
+				UriUtils.toIResourceIgnoreCase(moved).getFullPath().toString());
+	}
+
+	@Test
+	public void updatedOnReopen() throws Exception {
+		waitForWorkspaceChanges(() -> {
+			IFile file = project.getFile("myFile.ext");
+			file.create(new NullInputStream(0), true, null);
+		});
+
+		URI uri = URI.createPlatformResourceURI("/myProject/MYFILE.ext", true);
+		assertTrue(UriUtils.toIResourceIgnoreCase(uri).exists());
+
+		waitForWorkspaceChanges(() -> {
+			project.close(null);
+		});
+		assertFalse(UriUtils.toIResourceIgnoreCase(uri).exists());
+
+		waitForWorkspaceChanges(() -> {
+			project.open(null);
+		});
+		assertTrue(UriUtils.toIResourceIgnoreCase(uri).exists());
+	}
+
+	@Test
+	public void persistentIndex() throws Exception {
+		UriUtils.enablePersistentIndex();
+		UriUtils.enablePersistentIndex();
+
+		waitForWorkspaceChanges(() -> {
+			IFile file = project.getFile("myFile.ext");
+			file.create(new NullInputStream(0), true, null);
+		});
+		URI uri = URI.createPlatformResourceURI("/myProject/MYFILE.ext", true);
+		assertTrue(UriUtils.toIResourceIgnoreCase(uri).exists());
+
+		ResourcesPlugin.getWorkspace().save(true, null);
+
+		IResource iResource = UriUtils.toIResourceIgnoreCase(uri);
+		assertTrue(iResource.exists());
+		assertEquals("/myProject/myFile.ext", iResource.getFullPath().toString());
+	}
+
+	@Test
+	public void uriOther() throws Exception {
+		URI uri = URI.createURI("https://example.com/MyFile.ext");
+
+		assertNull(UriUtils.toIResourceIgnoreCase(uri));
+	}
+
+}
@@ -83,6 +83,22 @@ public class TestToIResourcePositive extends ATestWorkspace {
 		assertEquals("/myProject/folder/deep/myFile.ext", iResource.getFullPath().toString());
 	}
 
+	@Test
+	public void fileEncoded() throws Exception {
+		waitForWorkspaceChanges(() -> {
+			project.getFolder("/my folder").create(true, true, null);
+			IFile file = project.getFile("/my folder/100%.ext");
+			file.create(new NullInputStream(0), true, null);
+		});
+
+		URI uri = URI.createPlatformResourceURI("/myProject/my folder/100%.ext", true);
+		IResource iResource = UriUtils.toIResource(uri);
+
+		assertTrue(iResource instanceof IFile);
+		assertTrue(iResource.exists());
+		assertEquals("/myProject/my folder/100%.ext", iResource.getFullPath().toString());
+	}
+
 	@Test
 	public void fileSlash() throws Exception {
 		waitForWorkspaceChanges(() -> {
@@ -339,6 +355,89 @@ public class TestToIResourcePositive extends ATestWorkspace {
 		assertEquals("/myProject/myFile.ext", iResource.getFullPath().toString());
 	}
 
+	@Test
+	public void fileSameAsHandle() throws Exception {
+		waitForWorkspaceChanges(() -> {
+			IFile file = project.getFile("myFile.ext");
+			file.create(new NullInputStream(0), true, null);
+		});
+
+		URI uri = URI.createPlatformResourceURI("/myProject/myFile.ext", true);
+		IResource iResource = UriUtils.toIResource(uri);
+
+		assertEquals(project.getFile("myFile.ext"), iResource);
+	}
+
+	@Test
+	public void fileMissingFolder() throws Exception {
+		URI uri = URI.createPlatformResourceURI("/myProject/missing/deep/myFile.ext", true);
+		IResource iResource = UriUtils.toIResource(uri);
+
+		assertTrue(iResource instanceof IFile);
+		assertFalse(iResource.exists());
+		assertEquals("/myProject/missing/deep/myFile.ext", iResource.getFullPath().toString());
+	}
+
+	@Test
+	public void fileBelowFile() throws Exception {
+		waitForWorkspaceChanges(() -> {
+			IFile file = project.getFile("myFile.ext");
+			file.create(new NullInputStream(0), true, null);
+		});
+
+		URI uri = URI.createPlatformResourceURI("/myProject/myFile.ext/other.ext", true);
+		IResource iResource = UriUtils.toIResource(uri);
+
+		assertTrue(iResource instanceof IFile);
+		assertFalse(iResource.exists());
+		assertEquals("/myProject/myFile.ext/other.ext", iResource.getFullPath().toString());
+	}
+
+	@Test
+	public void folderMissing() throws Exception {
+		URI uri = URI.createPlatformResourceURI("/myProject/myFolder/", true);
+		IResource iResource = UriUtils.toIResource(uri);
+
+		assertTrue(iResource instanceof IFile);
+		assertFalse(iResource.exists());
+		assertEquals("/myProject/myFolder", iResource.getFullPath().toString());
+	}
+
+	@Test
+	public void folderSameAsHandle() throws Exception {
+		waitForWorkspaceChanges(() -> {
+			IFolder folder = project.getFolder("myFolder");
+			folder.create(true, true, null);
+		});
+
+		URI uri = URI.createPlatformResourceURI("/myProject/myFolder", true);
+		IResource iResource = UriUtils.toIResource(uri);
+
+		assertEquals(project.getFolder("myFolder"), iResource);
+	}
+
+	@Test
+	public void projectClosed() throws Exception {
+		waitForWorkspaceChanges(() -> {
+			IFile file = project.getFile("myFile.ext");
+			file.create(new NullInputStream(0), true, null);
+			project.close(null);
+		});
+
+		URI projectUri = URI.createPlatformResourceURI("/myProject", true);
+		IResource projectResource = UriUtils.toIResource(projectUri);
+
+		assertTrue(projectResource instanceof IProject);
+		assertTrue(projectResource.exists());
+
+		URI fileUri = URI.createPlatformResourceURI("/myProject/myFile.ext", true);
+		IResource fileResource = UriUtils.toIResource(fileUri);
+
+		assertTrue(fileResource instanceof IFile);
+		assertFalse(fileResource.exists());
+		assertEquals("/myProject/myFile.ext", fileResource.getFullPath().toString());
+	}
+
 	@Test
 	public void project() throws Exception {
 		URI uri = URI.createPlatformResourceURI("/myProject", true);
@@ -0,0 +1,128 @@
+package org.eclipse.commons.emf.uriutils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+
+import org.apache.commons.io.input.NullInputStream;
+import org.eclipse.commons.emf.UriUtils;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test cases for {@link UriUtils#toIResource(URI, ResourceSet)}.
+ *
+ * @author Niko Stotz
+ *
+ */
+public class TestToIResourceUriConverter extends ATestWorkspace {
+	private ResourceSet resourceSet;
+
+	@Before
+	public void createResourceSet() {
+		resourceSet = new ResourceSetImpl();
+	}
+
+	@Test
+	public void platformResource() throws Exception {
+		waitForWorkspaceChanges(() -> {
+			IFile file = project.getFile("myFile.ext");
+			file.create(new NullInputStream(0), true, null);
+		});
+
+		URI uri = URI.createPlatformResourceURI("/myProject/myFile.ext", true);
+		IResource iResource = UriUtils.toIResource(uri, resourceSet);
+
+		assertEquals(project.getFile("myFile.ext"), iResource);
+		assertTrue(iResource.exists());
+	}
+
+	@Test
+	public void pluginMapped() throws Exception {
+		waitForWorkspaceChanges(() -> {
+			IFile file = project.getFile("myFile.ext");
+			file.create(new NullInputStream(0), true, null);
+		});
+		resourceSet.getURIConverter().getURIMap().put(URI.createPlatformPluginURI("/myBundle/", true),
+				URI.createPlatformResourceURI("/myProject/", true));
+
+		URI uri = URI.createPlatformPluginURI("/myBundle/myFile.ext", true);
+		IResource iResource = UriUtils.toIResource(uri, resourceSet);
+
+		assertEquals(project.getFile("myFile.ext"), iResource);
+		assertTrue(iResource.exists());
+	}
+
+	@Test
+	public void pluginUnmapped() throws Exception {
+		URI uri = URI.createPlatformPluginURI("/myBundle/myFile.ext", true);
+
+		assertNull(UriUtils.toIResource(uri, resourceSet));
+	}
+
+	@Test
+	public void file() throws Exception {
+		waitForWorkspaceChanges(() -> {
+			project.getFolder("myFolder").create(true, true, null);
+			IFile file = project.getFile("myFolder/myFile.ext");
+			file.create(new NullInputStream(0), true, null);
+		});
+
+		File location = project.getFile("myFolder/myFile.ext").getLocation().toFile();
+		URI uri = URI.createFileURI(location.getAbsolutePath());
+		IResource iResource = UriUtils.toIResource(uri, resourceSet);
+
+		assertEquals(project.getFile("myFolder/myFile.ext"), iResource);
+		assertTrue(iResource.exists());
+	}
+
+	@Test
+	public void fileMissing() throws Exception {
+		File location = project.getLocation().append("myFolder/myFile.ext").toFile();
+		URI uri = URI.createFileURI(location.getAbsolutePath());
+		IResource iResource = UriUtils.toIResource(uri, resourceSet);
+
+		assertTrue(iResource instanceof IFile);
+		assertFalse(iResource.exists());
+		assertEquals("/myProject/myFolder/myFile.ext", iResource.getFullPath().toString());
+	}
+
+	@Test
+	public void fileProject() throws Exception {
+		URI uri = URI.createFileURI(project.getLocation().toFile().getAbsolutePath());
+		IResource iResource = UriUtils.toIResource(uri, resourceSet);
+
+		assertTrue(iResource instanceof IProject);
+		assertEquals(project, iResource);
+	}
+
+	@Test
+	public void fileOutside() throws Exception {
+		File tempFile = File.createTempFile(this.getClass().getSimpleName(), "");
+		tempFile.deleteOnExit();
+		URI uri = URI.createFileURI(tempFile.getAbsolutePath());
+
+		assertNull(UriUtils.toIResource(uri, resourceSet));
+	}
+
+	@Test
+	public void fileProjectClosed() throws Exception {
+		File location = project.getLocation().append("myFile.ext").toFile();
+		waitForWorkspaceChanges(() -> {
+			project.close(null);
+		});
+		URI uri = URI.createFileURI(location.getAbsolutePath());
+
+		assertNull(UriUtils.toIResource(uri, resourceSet));
+	}
+
+}
@@ -0,0 +1,103 @@
+package org.eclipse.commons.emf.uriutils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.io.input.NullInputStream;
+import org.eclipse.commons.emf.UriUtils;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.emf.common.util.URI;
+import org.junit.Test;
+
+/**
+ * Test cases for {@link UriUtils#toIResources(java.util.Collection)}.
+ *
+ * @author Niko Stotz
+ *
+ */
+public class TestToIResources extends ATestWorkspace {
+	@Test
+	public void empty() throws Exception {
+		List<IResource> iResources = UriUtils.toIResources(Collections.emptyList());
+
+		assertTrue(iResources.isEmpty());
+	}
+
+	@Test
+	public void mixed() throws Exception {
+		waitForWorkspaceChanges(() -> {
+			project.getFolder("/folder").create(true, true, null);
+			IFile file = project.getFile("/folder/myFile.ext");
+			file.create(new NullInputStream(0), true, null);
+		});
+
+		List<IResource> iResources = UriUtils.toIResources(Arrays.asList(
+				URI.createPlatformResourceURI("/myProject/folder/myFile.ext", true),
+				URI.createURI("https://example.com/MyFile.ext"),
+				URI.createPlatformResourceURI("/myProject/folder", true),
+				URI.createPlatformResourceURI("/myProject/missing/deep/myFile.ext", true),
+				URI.createPlatformResourceURI("/myProject", true),
+				URI.createPlatformResourceURI("/myProject/folder/other.ext", true)));
+
+		assertEquals(6, iResources.size());
+
+		assertTrue(iResources.get(0) instanceof IFile);
+		assertTrue(iResources.get(0).exists());
+		assertEquals("/myProject/folder/myFile.ext", iResources.get(0).getFullPath().toString());
+
+		assertNull(iResources.get(1));
+
+		assertTrue(iResources.get(2) instanceof IFolder);
+		assertTrue(iResources.get(2).exists());
+		assertEquals("/myProject/folder", iResources.get(2).getFullPath().toString());
+
+		assertTrue(iResources.get(3) instanceof IFile);
+		assertFalse(iResources.get(3).exists());
+		assertEquals("/myProject/missing/deep/myFile.ext", iResources.get(3).getFullPath().toString());
+
+		assertTrue(iResources.get(4) instanceof IProject);
+		assertTrue(iResources.get(4).exists());
+
+		assertTrue(iResources.get(5) instanceof IFile);
+		assertFalse(iResources.get(5).exists());
+		assertEquals("/myProject/folder/other.ext", iResources.get(5).getFullPath().toString());
+	}
+
+	@Test
+	public void duplicates() throws Exception {
+		List<IResource> iResources = UriUtils.toIResources(Arrays.asList(
+				URI.createPlatformResourceURI("/myProject/myFile.ext", true),
+				URI.createPlatformResourceURI("/myProject///myFile.ext", true).appendFragment("fragment")));
+
+		assertEquals(2, iResources.size());
+		assertSame(iResources.get(0), iResources.get(1));
+	}
+
+	@Test
+	public void sameAsSingle() throws Exception {
+		waitForWorkspaceChanges(() -> {
+			IFile file = project.getFile("myFile.ext");
+			file.create(new NullInputStream(0), true, null);
+		});
+
+		List<URI> uris = Arrays.asList(URI.createPlatformResourceURI("/myProject/myFile.ext", true),
+				URI.createPlatformResourceURI("/myProject/MYfILE.ext", true),
+				URI.createPlatformResourceURI("///", true));
+		List<IResource> iResources = UriUtils.toIResources(uris);
+
+		for (int i = 0; i < uris.size(); i++) {
+			assertEquals(UriUtils.toIResource(uris.get(i)), iResources.get(i));
+		}
+	}
+
+}
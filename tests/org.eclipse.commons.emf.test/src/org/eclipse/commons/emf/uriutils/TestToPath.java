@@ -0,0 +1,64 @@
+package org.eclipse.commons.emf.uriutils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.eclipse.commons.emf.UriUtils;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.emf.common.util.URI;
+import org.junit.Test;
+
+/**
+ * Test cases for {@link UriUtils#toPath(URI)}.
+ *
+ * @author Niko Stotz
+ *
+ */
+public class TestToPath {
+	@Test
+	public void file() throws Exception {
+		IPath path = UriUtils.toPath(URI.createPlatformResourceURI("/myProject/folder/myFile.ext", true));
+
+		assertEquals("/myProject/folder/myFile.ext", path.toString());
+	}
+
+	@Test
+	public void slashesExcess() throws Exception {
+		IPath path = UriUtils.toPath(URI.createPlatformResourceURI("////myProject///folder///deep/myFile.ext//", true));
+
+		assertEquals("/myProject/folder/deep/myFile.ext", path.toString());
+		assertEquals(4, path.segmentCount());
+	}
+
+	@Test
+	public void encoded() throws Exception {
+		IPath path = UriUtils.toPath(URI.createPlatformResourceURI("/myProject/my folder/100%.ext", true));
+
+		assertEquals("/myProject/my folder/100%.ext", path.toString());
+	}
+
+	@Test
+	public void sameAsPlatformString() throws Exception {
+		URI uri = URI.createPlatformResourceURI("/myProject/a%20b/./c/../d.ext", true).appendFragment("fragment")
+				.appendQuery("query");
+		IPath path = UriUtils.toPath(uri);
+
+		assertEquals(Path.fromOSString(uri.toPlatformString(true)), path);
+	}
+
+	@Test
+	public void workspaceRoot() throws Exception {
+		IPath path = UriUtils.toPath(URI.createPlatformResourceURI("///", true));
+
+		assertEquals(0, path.segmentCount());
+		assertEquals("/", path.toString());
+	}
+
+	@Test
+	public void other() throws Exception {
+		assertNull(UriUtils.toPath(URI.createURI("https://example.com/MyFile.ext")));
+		assertNull(UriUtils.toPath(URI.createFileURI("/tmp/myFile.ext")));
+	}
+
+}
@@ -0,0 +1,85 @@
+package org.eclipse.commons.emf.uriutils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.apache.commons.io.input.NullInputStream;
+import org.eclipse.commons.emf.UriUtils;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.emf.common.util.URI;
+import org.junit.Test;
+
+/**
+ * Test cases for {@link UriUtils#toUri(org.eclipse.core.resources.IResource)}
+ * and {@link UriUtils#toUri(org.eclipse.core.runtime.IPath)}.
+ *
+ * @author Niko Stotz
+ *
+ */
+public class TestToUri extends ATestWorkspace {
+	@Test
+	public void file() throws Exception {
+		waitForWorkspaceChanges(() -> {
+			IFile file = project.getFile("myFile.ext");
+			file.create(new NullInputStream(0), true, null);
+		});
+
+		URI uri = UriUtils.toUri(project.getFile("myFile.ext"));
+
+		assertEquals(URI.createPlatformResourceURI("/myProject/myFile.ext", true), uri);
+		assertEquals(project.getFile("myFile.ext"), UriUtils.toIResource(uri));
+	}
+
+	@Test
+	public void folder() throws Exception {
+		IFolder folder = project.getFolder("myFolder");
+
+		assertEquals(URI.createPlatformResourceURI("/myProject/myFolder", true), UriUtils.toUri(folder));
+	}
+
+	@Test
+	public void project() throws Exception {
+		assertEquals(URI.createPlatformResourceURI("/myProject", true), UriUtils.toUri(project));
+	}
+
+	@Test
+	public void workspaceRoot() throws Exception {
+		URI uri = UriUtils.toUri(ResourcesPlugin.getWorkspace().getRoot());
+
+		assertEquals(URI.createPlatformResourceURI("/", true), uri);
+		assertEquals(ResourcesPlugin.getWorkspace().getRoot(), UriUtils.toIResource(uri));
+	}
+
+	@Test
+	public void encoded() throws Exception {
+		String pathName = "/myProject/my folder/100%#?.ext";
+		URI uri = UriUtils.toUri(new Path(pathName));
+
+		assertEquals(URI.createPlatformResourceURI(pathName, true), uri);
+		assertEquals(new Path(pathName), UriUtils.toPath(uri));
+	}
+
+	@Test
+	public void pathRelativeTrailing() throws Exception {
+		URI uri = UriUtils.toUri(new Path("myProject/myFolder/"));
+
+		assertEquals(URI.createPlatformResourceURI("/myProject/myFolder", true), uri);
+	}
+
+	@Test
+	public void identical() throws Exception {
+		URI first = UriUtils.toUri(project.getFile("myFile.ext"));
+		URI second = UriUtils.toUri(new Path("/myProject/myFile.ext"));
+
+		assertSame(first, second);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void pathDevice() throws Exception {
+		UriUtils.toUri(new Path("C:", "/myProject/myFile.ext"));
+	}
+
+}
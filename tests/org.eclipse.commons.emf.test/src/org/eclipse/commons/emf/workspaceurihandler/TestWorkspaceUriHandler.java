@@ -0,0 +1,134 @@
+package org.eclipse.commons.emf.workspaceurihandler;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.io.IOUtils;
+import org.eclipse.commons.emf.WorkspaceUriHandler;
+import org.eclipse.commons.emf.uriutils.ATestWorkspace;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.URIConverter;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.junit.Test;
+
+/**
+ * Test cases for {@link WorkspaceUriHandler}.
+ *
+ * @author Niko Stotz
+ *
+ */
+public class TestWorkspaceUriHandler extends ATestWorkspace {
+	private static final byte[] CONTENT = createContent(100_000);
+
+	@Test
+	public void mapped() throws Exception {
+		URI uri = createFile("myFile.ext");
+
+		assertArrayEquals(CONTENT, read(new WorkspaceUriHandler(0), uri));
+	}
+
+	@Test
+	public void chunked() throws Exception {
+		URI uri = createFile("myFile.ext");
+		WorkspaceUriHandler handler = new WorkspaceUriHandler();
+
+		assertEquals(WorkspaceUriHandler.NO_MAPPING, handler.getMappingThreshold());
+		assertArrayEquals(CONTENT, read(handler, uri));
+		// Reuses the buffer released by the first stream
+		assertArrayEquals(CONTENT, read(handler, uri));
+	}
+
+	@Test
+	public void chunkedSkip() throws Exception {
+		URI uri = createFile("myFile.ext");
+
+		try (InputStream stream = new WorkspaceUriHandler().createInputStream(uri, Collections.emptyMap())) {
+			assertEquals(CONTENT[0] & 0xff, stream.read());
+			assertEquals(70_000, stream.skip(70_000));
+			assertEquals(CONTENT[70_001] & 0xff, stream.read());
+			assertEquals(CONTENT.length - 70_002, stream.available());
+			assertEquals(CONTENT.length - 70_002, stream.skip(Long.MAX_VALUE));
+			assertEquals(-1, stream.read());
+		}
+	}
+
+	@Test
+	public void chunkedDeletableAfterClose() throws Exception {
+		URI uri = createFile("myFile.ext");
+		read(new WorkspaceUriHandler(), uri);
+
+		waitForWorkspaceChanges(() -> project.getFile("myFile.ext").delete(true, null));
+
+		assertFalse(project.getFile("myFile.ext").getLocation().toFile().exists());
+	}
+
+	@Test
+	public void timeStamp() throws Exception {
+		URI uri = createFile("myFile.ext");
+		IFile file = project.getFile("myFile.ext");
+
+		Map<Object, Object> response = new HashMap<>();
+		Map<Object, Object> options = new HashMap<>();
+		options.put(URIConverter.OPTION_RESPONSE, response);
+		try (InputStream stream = new WorkspaceUriHandler(0).createInputStream(uri, options)) {
+			assertEquals(file.getLocalTimeStamp(), response.get(URIConverter.RESPONSE_TIME_STAMP_PROPERTY));
+		}
+	}
+
+	@Test
+	public void loadModel() throws Exception {
+		URI uri = URI.createPlatformResourceURI("/myProject/model.ecore", true);
+		EPackage ePackage = EcoreFactory.eINSTANCE.createEPackage();
+		ePackage.setName("myPackage");
+		EClass eClass = EcoreFactory.eINSTANCE.createEClass();
+		eClass.setName("MyClass");
+		ePackage.getEClassifiers().add(eClass);
+		waitForWorkspaceChanges(() -> {
+			Resource resource = new ResourceSetImpl().createResource(uri);
+			resource.getContents().add(ePackage);
+			resource.save(Collections.emptyMap());
+		});
+
+		ResourceSet resourceSet = new ResourceSetImpl();
+		resourceSet.getURIConverter().getURIHandlers().add(0, new WorkspaceUriHandler(0));
+		Resource loaded = resourceSet.getResource(uri, true);
+
+		assertTrue(loaded.getEObject("//MyClass") instanceof EClass);
+	}
+
+	private URI createFile(final String name) throws Exception {
+		waitForWorkspaceChanges(() -> {
+			project.getFile(name).create(new ByteArrayInputStream(CONTENT), true, null);
+		});
+		return URI.createPlatformResourceURI("/myProject/" + name, true);
+	}
+
+	private static byte[] read(final WorkspaceUriHandler handler, final URI uri) throws Exception {
+		try (InputStream stream = handler.createInputStream(uri, Collections.emptyMap())) {
+			return IOUtils.toByteArray(stream);
+		}
+	}
+
+	private static byte[] createContent(final int size) {
+		byte[] result = new byte[size];
+		for (int i = 0; i < size; i++) {
+			result[i] = (byte) (i * 31);
+		}
+		return result;
+	}
+
+}
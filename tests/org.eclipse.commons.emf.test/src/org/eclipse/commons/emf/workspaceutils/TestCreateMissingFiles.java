@@ -0,0 +1,72 @@
+package org.eclipse.commons.emf.workspaceutils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.input.NullInputStream;
+import org.eclipse.commons.emf.WorkspaceUtils;
+import org.eclipse.commons.emf.uriutils.ATestWorkspace;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.emf.common.util.URI;
+import org.junit.Test;
+
+/**
+ * Test cases for {@link WorkspaceUtils#createMissingFiles(java.util.Collection, org.eclipse.core.runtime.IProgressMonitor)}.
+ *
+ * @author Niko Stotz
+ *
+ */
+public class TestCreateMissingFiles extends ATestWorkspace {
+	@Test
+	public void nested() throws Exception {
+		waitForWorkspaceChanges(() -> {
+			project.getFile("existing.ext").create(new NullInputStream(0), true, null);
+		});
+
+		List<URI> uris = Arrays.asList(uri("/myProject/a/b/c/deep.ext"), uri("/myProject/a/b/other.ext"),
+				uri("/myProject/a/d/third.ext"), uri("/myProject/top.ext"), uri("/myProject/existing.ext"),
+				uri("/myProject/a/b/other.ext"), URI.createURI("https://example.com/MyFile.ext"));
+
+		AtomicInteger events = new AtomicInteger();
+		IResourceChangeListener listener = event -> events.incrementAndGet();
+		ResourcesPlugin.getWorkspace().addResourceChangeListener(listener, IResourceChangeEvent.POST_CHANGE);
+		List<IFile> created;
+		try {
+			created = WorkspaceUtils.createMissingFiles(uris, null);
+		} finally {
+			ResourcesPlugin.getWorkspace().removeResourceChangeListener(listener);
+		}
+
+		assertEquals(Arrays.asList(project.getFile("a/b/c/deep.ext"), project.getFile("a/b/other.ext"),
+				project.getFile("a/d/third.ext"), project.getFile("top.ext")), created);
+		for (IFile file : created) {
+			assertTrue(file.exists());
+		}
+		assertTrue(project.getFolder("a/b/c").exists());
+		assertEquals(1, events.get());
+	}
+
+	@Test
+	public void nothingMissing() throws Exception {
+		assertTrue(WorkspaceUtils.createMissingFiles(Collections.singleton(uri("/myProject")), null).isEmpty());
+	}
+
+	@Test(expected = CoreException.class)
+	public void projectMissing() throws Exception {
+		WorkspaceUtils.createMissingFiles(Collections.singleton(uri("/missingProject/myFile.ext")), null);
+	}
+
+	private static URI uri(final String path) {
+		return URI.createPlatformResourceURI(path, true);
+	}
+
+}
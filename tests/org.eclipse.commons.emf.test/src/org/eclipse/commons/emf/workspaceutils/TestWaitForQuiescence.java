@@ -0,0 +1,100 @@
+package org.eclipse.commons.emf.workspaceutils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.input.NullInputStream;
+import org.eclipse.commons.emf.WorkspaceUtils;
+import org.eclipse.commons.emf.uriutils.ATestWorkspace;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.junit.Test;
+
+/**
+ * Test cases for {@link WorkspaceUtils#waitForQuiescence(long, TimeUnit)}.
+ *
+ * @author Niko Stotz
+ *
+ */
+public class TestWaitForQuiescence extends ATestWorkspace {
+	@Test
+	public void afterChange() throws Exception {
+		project.getFile("myFile.ext").create(new NullInputStream(0), true, null);
+
+		assertTrue(WorkspaceUtils.waitForQuiescence(60, TimeUnit.SECONDS));
+		assertEquals(0, Job.getJobManager().find(ResourcesPlugin.FAMILY_AUTO_BUILD).length);
+	}
+
+	@Test
+	public void alreadyQuiescent() throws Exception {
+		assertTrue(WorkspaceUtils.waitForQuiescence(60, TimeUnit.SECONDS));
+
+		long start = System.nanoTime();
+		assertTrue(WorkspaceUtils.waitForQuiescence(60, TimeUnit.SECONDS));
+		assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+	}
+
+	@Test
+	public void timeout() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		Job build = new Job("blocking build") {
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return Status.OK_STATUS;
+			}
+
+			@Override
+			public boolean belongsTo(Object family) {
+				return family == ResourcesPlugin.FAMILY_MANUAL_BUILD;
+			}
+		};
+		build.schedule();
+
+		try {
+			assertFalse(WorkspaceUtils.waitForQuiescence(300, TimeUnit.MILLISECONDS));
+		} finally {
+			release.countDown();
+		}
+
+		assertTrue(WorkspaceUtils.waitForQuiescence(60, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void sleepingBuild() throws Exception {
+		Job build = new Job("sleeping build") {
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				return Status.OK_STATUS;
+			}
+
+			@Override
+			public boolean belongsTo(Object family) {
+				return family == ResourcesPlugin.FAMILY_MANUAL_BUILD;
+			}
+		};
+		build.schedule(TimeUnit.HOURS.toMillis(1));
+
+		try {
+			assertEquals(Job.SLEEPING, build.getState());
+
+			long start = System.nanoTime();
+			assertTrue(WorkspaceUtils.waitForQuiescence(60, TimeUnit.SECONDS));
+			assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+		} finally {
+			build.cancel();
+		}
+	}
+
+}